@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.auth;
+
+import com.liferay.mobile.android.auth.basic.BasicAuthentication;
+import com.liferay.mobile.android.http.Request;
+
+import java.lang.reflect.Method;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Bruno Farache
+ */
+public class AuthenticationUtil {
+
+	public static boolean isHeadersOnly(Authentication authentication) {
+		if (!(authentication instanceof HeadersAuthentication)) {
+			return false;
+		}
+
+		Class<?> clazz = authentication.getClass();
+
+		Boolean headersOnly = _headersOnly.get(clazz);
+
+		if (headersOnly == null) {
+
+			// Subclasses that override authenticate(Request) may do more than
+			// add the precomputed headers, so they still get called
+
+			try {
+				Method method = clazz.getMethod("authenticate", Request.class);
+
+				headersOnly =
+					method.getDeclaringClass() == BasicAuthentication.class;
+			}
+			catch (NoSuchMethodException nsme) {
+				headersOnly = false;
+			}
+
+			_headersOnly.put(clazz, headersOnly);
+		}
+
+		return headersOnly;
+	}
+
+	private static final Map<Class<?>, Boolean> _headersOnly =
+		new ConcurrentHashMap<Class<?>, Boolean>();
+
+}
@@ -17,6 +17,7 @@ package com.liferay.mobile.android.auth;
 import com.liferay.mobile.android.auth.basic.BasicAuthentication;
 import com.liferay.mobile.android.auth.basic.CookieAuthentication;
 import com.liferay.mobile.android.exception.AuthenticationException;
+import com.liferay.mobile.android.http.client.OkHttpClientRegistry;
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.service.SessionImpl;
 import com.liferay.mobile.android.util.Validator;
@@ -30,6 +31,7 @@ import com.squareup.okhttp.Request;
 import com.squareup.okhttp.Request.Builder;
 import com.squareup.okhttp.RequestBody;
 import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
 
 import java.io.IOException;
 
@@ -38,7 +40,11 @@ import java.net.CookiePolicy;
 import java.net.CookieStore;
 import java.net.HttpCookie;
 
+import java.util.concurrent.TimeUnit;
+
 import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
 
 /**
  * @author Javier Gamarra
@@ -81,6 +87,67 @@ public class CookieSignIn {
 
 	}
 
+	protected static void drain(BufferedSource source) {
+
+		// Reading the rest of a regular sized page lets the connection go
+		// back to the pool, a larger page is cut off and its connection closed
+
+		long remaining = MAX_DRAIN_LENGTH;
+
+		try {
+			while ((remaining > 0) && source.request(1)) {
+				long size = Math.min(source.buffer().size(), remaining);
+
+				source.skip(size);
+
+				remaining -= size;
+			}
+		}
+		catch (IOException ioe) {
+		}
+	}
+
+	protected static String getAuthToken(BufferedSource source)
+		throws IOException {
+
+		byte first = _AUTH_TOKEN.getByte(0);
+		int size = _AUTH_TOKEN.size();
+
+		while (true) {
+			long index = source.indexOf(first);
+
+			if (index == -1) {
+				return null;
+			}
+
+			source.skip(index);
+
+			if (!source.request(size + TOKEN_LENGTH)) {
+				return null;
+			}
+
+			Buffer buffer = source.buffer();
+
+			boolean match = true;
+
+			for (int i = 1; i < size; i++) {
+				if (buffer.getByte(i) != _AUTH_TOKEN.getByte(i)) {
+					match = false;
+
+					break;
+				}
+			}
+
+			if (match) {
+				source.skip(size);
+
+				return source.readUtf8(TOKEN_LENGTH);
+			}
+
+			source.skip(1);
+		}
+	}
+
 	protected static Callback getCallback(
 		final String server, final CookieCallback callback,
 		final CookieManager cookieManager, final String username,
@@ -128,14 +195,30 @@ public class CookieSignIn {
 			throw new AuthenticationException("Cookie invalid or empty");
 		}
 
-		String body = response.body().string();
-		Integer position = body.indexOf(AUTH_TOKEN) + AUTH_TOKEN.length();
-		String authToken = body.substring(position, position + TOKEN_LENGTH);
+		String authToken;
+
+		ResponseBody body = response.body();
+
+		try {
+			BufferedSource source = body.source();
+
+			authToken = getAuthToken(source);
+
+			drain(source);
+		}
+		finally {
+			body.close();
+		}
+
+		if (authToken == null) {
+			throw new AuthenticationException("Auth token not found");
+		}
+
 		String cookieHeader = getHttpCookies(cookieManager.getCookieStore());
 
 		if (Validator.isNotNull(cookieHeader)) {
 			Authentication authentication = new CookieAuthentication(
-				authToken, cookieHeader, username, password);
+				server, authToken, cookieHeader, username, password);
 
 			return new SessionImpl(server, authentication);
 		}
@@ -200,7 +283,16 @@ public class CookieSignIn {
 		cookieManager = new CookieManager();
 		cookieManager.setCookiePolicy(CookiePolicy.ACCEPT_ALL);
 
-		OkHttpClient client = new OkHttpClient();
+		OkHttpClient client = OkHttpClientRegistry.getDefault().getClient();
+
+		client = client.clone();
+
+		int connectionTimeout = session.getConnectionTimeout();
+
+		client.setConnectTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+		client.setReadTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+		client.setWriteTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+
 		client.setCookieHandler(cookieManager);
 		client.setFollowRedirects(true);
 
@@ -211,6 +303,8 @@ public class CookieSignIn {
 
 	protected static final String AUTH_TOKEN = "Liferay.authToken=\"";
 
+	protected static final long MAX_DRAIN_LENGTH = 64 * 1024;
+
 	protected static final int TOKEN_LENGTH = 8;
 
 	protected CookieManager cookieManager;
@@ -218,6 +312,9 @@ public class CookieSignIn {
 	protected Session session;
 	protected String username;
 
+	private static final ByteString _AUTH_TOKEN = ByteString.encodeUtf8(
+		AUTH_TOKEN);
+
 	private CookieSignIn(Session session) {
 		this.session = session;
 	}
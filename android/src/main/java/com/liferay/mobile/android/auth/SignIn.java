@@ -15,14 +15,12 @@
 package com.liferay.mobile.android.auth;
 
 import com.liferay.mobile.android.auth.basic.BasicAuthentication;
-import com.liferay.mobile.android.callback.typed.JSONArrayCallback;
 import com.liferay.mobile.android.callback.typed.JSONObjectCallback;
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.service.SessionImpl;
-import com.liferay.mobile.android.v7.group.GroupService;
-import com.liferay.mobile.android.v7.user.UserService;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
@@ -30,55 +28,55 @@ import org.json.JSONObject;
  */
 public class SignIn {
 
+	public static JSONObject signIn(Session session) throws Exception {
+		String username = getUsername(session);
+		SignInMethod method = SignInMethod.fromUsername(username);
+
+		Session signInSession = new SessionImpl(session);
+
+		signInSession.setCallback(null);
+
+		JSONArray result = signInSession.invoke(
+			getCommand(username, method));
+
+		return getUser(result, method);
+	}
+
 	public static void signIn(
 		final Session session, final JSONObjectCallback callback,
 		final SignInMethod method) {
 
-		GroupService groupService = new GroupService(session);
+		try {
+			String username = getUsername(session);
 
-		session.setCallback(new JSONArrayCallback() {
+			Session signInSession = new SessionImpl(session);
 
-			@Override
-			public void onSuccess(JSONArray sites) {
-				if (sites.length() == 0) {
-					onFailure(new Exception("User doesn't belong to any site"));
-				}
+			signInSession.setCallback(new JSONObjectCallback() {
 
-				try {
-					JSONObject site = sites.getJSONObject(0);
-					long companyId = site.getLong("companyId");
+				@Override
+				public JSONObject inBackground(JSONArray result)
+					throws Exception {
 
-					Session userSession = new SessionImpl(session);
-					userSession.setCallback(callback);
+					JSONArray users = new JSONArray();
 
-					UserService userService = new UserService(userSession);
+					users.put(getUser(result, method));
 
-					String username = getUsername(session);
-
-					if (method == SignInMethod.EMAIL) {
-						userService.getUserByEmailAddress(companyId, username);
-					}
-					else if (method == SignInMethod.USER_ID) {
-						userService.getUserById(Long.parseLong(username));
-					}
-					else {
-						userService.getUserByScreenName(companyId, username);
-					}
+					return callback.inBackground(users);
 				}
-				catch (Exception e) {
-					onFailure(e);
+
+				@Override
+				public void onFailure(Exception exception) {
+					callback.onFailure(exception);
 				}
-			}
 
-			@Override
-			public void onFailure(Exception exception) {
-				callback.onFailure(exception);
-			}
+				@Override
+				public void onSuccess(JSONObject user) {
+					callback.onSuccess(user);
+				}
 
-		});
+			});
 
-		try {
-			groupService.getUserSitesGroups();
+			signInSession.invoke(getCommand(username, method));
 		}
 		catch (Exception e) {
 			callback.onFailure(e);
@@ -97,6 +95,66 @@ public class SignIn {
 		}
 	}
 
+	protected static JSONObject getCommand(
+			String username, SignInMethod method)
+		throws JSONException {
+
+		JSONObject command = new JSONObject();
+
+		if (method == SignInMethod.USER_ID) {
+			JSONObject params = new JSONObject();
+
+			params.put("userId", Long.parseLong(username));
+
+			command.put("/user/get-user-by-id", params);
+
+			return command;
+		}
+
+		JSONObject userParams = new JSONObject();
+
+		userParams.put("@companyId", "$site.companyId");
+
+		String userCommand;
+
+		if (method == SignInMethod.EMAIL) {
+			userParams.put("emailAddress", username);
+
+			userCommand = "$user = /user/get-user-by-email-address";
+		}
+		else {
+			userParams.put("screenName", username);
+
+			userCommand = "$user = /user/get-user-by-screen-name";
+		}
+
+		JSONObject siteParams = new JSONObject();
+
+		siteParams.put("classNames", JSONObject.NULL);
+		siteParams.put("max", 1);
+		siteParams.put(userCommand, userParams);
+
+		command.put("$site = /group/get-user-sites-groups", siteParams);
+
+		return command;
+	}
+
+	protected static JSONObject getUser(JSONArray result, SignInMethod method)
+		throws Exception {
+
+		if (method == SignInMethod.USER_ID) {
+			return result.getJSONObject(0);
+		}
+
+		JSONArray sites = result.getJSONArray(0);
+
+		if (sites.length() == 0) {
+			throw new Exception("User doesn't belong to any site");
+		}
+
+		return sites.getJSONObject(0).getJSONObject("user");
+	}
+
 	protected static String getUsername(Session session) throws Exception {
 		Authentication auth = session.getAuthentication();
 
@@ -113,4 +171,4 @@ public class SignIn {
 		return ((BasicAuthentication)auth).getUsername();
 	}
 
-}
\ No newline at end of file
+}
@@ -14,16 +14,19 @@
 
 package com.liferay.mobile.android.auth.basic;
 
-import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.auth.HeadersAuthentication;
 import com.liferay.mobile.android.http.Headers;
 import com.liferay.mobile.android.http.Request;
 
 import com.squareup.okhttp.Credentials;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * @author Bruno Farache
  */
-public class BasicAuthentication implements Authentication {
+public class BasicAuthentication implements HeadersAuthentication {
 
 	public BasicAuthentication(String username, String password) {
 		this.username = username;
@@ -32,8 +35,20 @@ public class BasicAuthentication implements Authentication {
 
 	@Override
 	public void authenticate(Request request) {
-		request.getHeaders().put(
-			Headers.AUTHORIZATION, Credentials.basic(username, password));
+		request.getHeaders().putAll(getHeaders());
+	}
+
+	@Override
+	public Map<String, String> getHeaders() {
+		Map<String, String> headers = this.headers;
+
+		if (headers == null) {
+			headers = Collections.unmodifiableMap(createHeaders());
+
+			this.headers = headers;
+		}
+
+		return headers;
 	}
 
 	public String getPassword() {
@@ -46,13 +61,23 @@ public class BasicAuthentication implements Authentication {
 
 	public void setPassword(String password) {
 		this.password = password;
+
+		headers = null;
 	}
 
 	public void setUsername(String username) {
 		this.username = username;
+
+		headers = null;
+	}
+
+	protected Map<String, String> createHeaders() {
+		return Collections.singletonMap(
+			Headers.AUTHORIZATION, Credentials.basic(username, password));
 	}
 
+	protected volatile Map<String, String> headers;
 	protected String password;
 	protected String username;
 
-}
\ No newline at end of file
+}
@@ -14,41 +14,250 @@
 
 package com.liferay.mobile.android.auth.basic;
 
-import com.liferay.mobile.android.http.Request;
+import com.liferay.mobile.android.auth.CookieSignIn;
+import com.liferay.mobile.android.exception.AuthenticationException;
+import com.liferay.mobile.android.exception.ServerException;
+import com.liferay.mobile.android.http.Status;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.service.SessionImpl;
 
+import com.squareup.okhttp.Response;
+
+import java.io.IOException;
+
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.BufferedSource;
+
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * @author Javier Gamarra
  */
 public class CookieAuthentication extends BasicAuthentication {
 
+	public static final long MAX_ERROR_LENGTH = 1024;
+
+	public static final long RENEWAL_RETRY_INTERVAL = 30 * 1000;
+
 	public CookieAuthentication(
 		String authToken, String cookieHeader, String username,
 		String password) {
 
+		this(null, authToken, cookieHeader, username, password);
+	}
+
+	public CookieAuthentication(
+		String server, String authToken, String cookieHeader, String username,
+		String password) {
+
 		super(username, password);
 
+		this.server = server;
+		this.authToken = authToken;
+		this.cookieHeader = cookieHeader;
+	}
+
+	public String getAuthToken() {
+		return authToken;
+	}
+
+	public String getCookieHeader() {
+		return cookieHeader;
+	}
+
+	public long getRenewalCount() {
+		return _renewalCount.get();
+	}
+
+	public String getServer() {
+		return server;
+	}
+
+	public boolean isExpired(Response response) throws IOException {
+		int code = response.code();
+
+		if (code == Status.UNAUTHORIZED) {
+			return true;
+		}
+
+		BufferedSource source = response.body().source();
+
+		if (source.request(MAX_ERROR_LENGTH)) {
+			return false;
+		}
+
+		String body = source.buffer().clone().readUtf8();
+
+		if (!body.startsWith("{")) {
+			return false;
+		}
+
+		try {
+			JSONObject jsonObj = new JSONObject(body);
+
+			String type = jsonObj.optString("exception");
+			String message = jsonObj.optString("message");
+
+			JSONObject error = jsonObj.optJSONObject("error");
+
+			if (error != null) {
+				type = error.optString("type");
+				message = error.optString("message");
+			}
+
+			return isExpired(type, message);
+		}
+		catch (JSONException je) {
+			return false;
+		}
+	}
+
+	public synchronized boolean renew(String cookieHeader) throws Exception {
+		if (!cookieHeader.equals(this.cookieHeader)) {
+			return true;
+		}
+
+		if ((server == null) || (password == null)) {
+			return false;
+		}
+
+		// Requests that waited for a failed sign in with the same cookie fail
+		// with its exception instead of signing in again one by one
+
+		if (cookieHeader.equals(_failedCookieHeader) &&
+			((System.currentTimeMillis() - _failedTime) <
+				RENEWAL_RETRY_INTERVAL)) {
+
+			throw getFailure();
+		}
+
+		Session session;
+
+		try {
+			session = CookieSignIn.signIn(
+				new SessionImpl(
+					server, new BasicAuthentication(username, password)));
+		}
+		catch (Exception e) {
+			_failedCookieHeader = cookieHeader;
+			_failedTime = System.currentTimeMillis();
+			_failure = e;
+
+			throw e;
+		}
+
+		_failedCookieHeader = null;
+		_failure = null;
+
+		CookieAuthentication authentication =
+			(CookieAuthentication)session.getAuthentication();
+
+		this.authToken = authentication.getAuthToken();
+		this.cookieHeader = authentication.getCookieHeader();
+
+		headers = null;
+
+		_renewalCount.incrementAndGet();
+
+		return true;
+	}
+
+	public void setAuthToken(String authToken) {
 		this.authToken = authToken;
+
+		headers = null;
+	}
+
+	public void setCookieHeader(String cookieHeader) {
 		this.cookieHeader = cookieHeader;
+
+		headers = null;
+	}
+
+	@Override
+	public synchronized void setPassword(String password) {
+		super.setPassword(password);
+
+		_failedCookieHeader = null;
+	}
+
+	public void setServer(String server) {
+		this.server = server;
+	}
+
+	@Override
+	public synchronized void setUsername(String username) {
+		super.setUsername(username);
+
+		_failedCookieHeader = null;
 	}
 
 	@Override
-	public void authenticate(Request request) {
-		Map<String, String> headers = request.getHeaders();
+	protected Map<String, String> createHeaders() {
+		Map<String, String> headers = new HashMap<String, String>(2);
+
 		headers.put("Cookie", "COOKIE_SUPPORT=true; " + cookieHeader);
 		headers.put("X-CSRF-Token", authToken);
+
+		return headers;
 	}
 
-	public String getAuthToken() {
-		return authToken;
+	protected Exception getFailure() {
+		if (_failure instanceof AuthenticationException) {
+			AuthenticationException ae = (AuthenticationException)_failure;
+
+			AuthenticationException failure = new AuthenticationException(
+				ae.getMessage(), ae.getDetail());
+
+			failure.initCause(ae);
+
+			return failure;
+		}
+
+		return new ServerException(_failure.getMessage(), _failure);
 	}
 
-	public String getCookieHeader() {
-		return cookieHeader;
+	protected boolean isExpired(String type, String message) {
+
+		// Only an unauthenticated call or a stale CSRF token means the session
+		// is gone, other security exceptions are permission errors
+
+		if (type.equals(_SECURITY_EXCEPTION)) {
+			return message.equals(_AUTHENTICATED_ACCESS_REQUIRED);
+		}
+
+		if (type.endsWith(_PRINCIPAL_EXCEPTION)) {
+			return message.equals(_INVALID_AUTHENTICATION_TOKEN);
+		}
+
+		return type.endsWith(_MUST_HAVE_VALID_CSRF_TOKEN);
 	}
 
-	protected String authToken;
-	protected String cookieHeader;
+	protected volatile String authToken;
+	protected volatile String cookieHeader;
+	protected volatile String server;
+
+	private static final String _AUTHENTICATED_ACCESS_REQUIRED =
+		"Authenticated access required";
+
+	private static final String _INVALID_AUTHENTICATION_TOKEN =
+		"Invalid authentication token";
+
+	private static final String _MUST_HAVE_VALID_CSRF_TOKEN =
+		"PrincipalException$MustHaveValidCSRFToken";
+
+	private static final String _PRINCIPAL_EXCEPTION = "PrincipalException";
+
+	private static final String _SECURITY_EXCEPTION =
+		"java.lang.SecurityException";
+
+	private String _failedCookieHeader;
+	private long _failedTime;
+	private Exception _failure;
+	private final AtomicLong _renewalCount = new AtomicLong();
 
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@
 package com.liferay.mobile.android.auth.basic;
 
 import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.util.CharPool;
 
 import com.squareup.okhttp.Authenticator;
 import com.squareup.okhttp.Request;
@@ -23,12 +24,19 @@ import com.squareup.okhttp.Response;
 
 import java.io.IOException;
 
+import java.net.MalformedURLException;
 import java.net.Proxy;
+import java.net.URL;
 
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.impl.auth.DigestScheme;
-import org.apache.http.message.BasicHeader;
-import org.apache.http.message.BasicHttpRequest;
+import java.security.SecureRandom;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okio.ByteString;
 
 /**
  * @author Silvio Santos
@@ -42,6 +50,25 @@ public class DigestAuthentication extends BasicAuthentication
 
 	@Override
 	public void authenticate(com.liferay.mobile.android.http.Request request) {
+		URL url;
+
+		try {
+			url = new URL(request.getURL());
+		}
+		catch (MalformedURLException murle) {
+			return;
+		}
+
+		Challenge challenge = _challenges.get(url.getAuthority());
+
+		if (challenge == null) {
+			return;
+		}
+
+		request.getHeaders().put(
+			Headers.AUTHORIZATION,
+			getAuthorization(
+				challenge, request.getMethod().name(), getURI(url)));
 	}
 
 	@Override
@@ -49,31 +76,31 @@ public class DigestAuthentication extends BasicAuthentication
 		throws IOException {
 
 		Request request = response.request();
-		Builder builder = request.newBuilder();
-
-		try {
-			BasicHeader authenticateHeader = new BasicHeader(
-				Headers.WWW_AUTHENTICATE,
-				response.header(Headers.WWW_AUTHENTICATE));
 
-			DigestScheme scheme = new DigestScheme();
-			scheme.processChallenge(authenticateHeader);
+		Challenge challenge = parseChallenge(response);
 
-			BasicHttpRequest basicHttpRequest = new BasicHttpRequest(
-				request.method(), request.uri().getPath());
+		if (challenge == null) {
+			return null;
+		}
 
-			UsernamePasswordCredentials credentials =
-				new UsernamePasswordCredentials(username, password);
+		String authorization = request.header(Headers.AUTHORIZATION);
 
-			String authorizationHeader = scheme.authenticate(
-				credentials, basicHttpRequest).getValue();
+		if (!challenge.stale && (authorization != null) &&
+			authorization.contains("nonce=\"" + challenge.nonce + "\"")) {
 
-			builder.addHeader(Headers.AUTHORIZATION, authorizationHeader);
-		}
-		catch (Exception e) {
-			throw new IOException(e);
+			return null;
 		}
 
+		URL url = request.url();
+
+		_challenges.put(url.getAuthority(), challenge);
+
+		Builder builder = request.newBuilder();
+
+		builder.header(
+			Headers.AUTHORIZATION,
+			getAuthorization(challenge, request.method(), getURI(url)));
+
 		return builder.build();
 	}
 
@@ -84,4 +111,214 @@ public class DigestAuthentication extends BasicAuthentication
 		return null;
 	}
 
-}
\ No newline at end of file
+	public int getChallengeCount() {
+		return _challenges.size();
+	}
+
+	@Override
+	public void setPassword(String password) {
+		super.setPassword(password);
+
+		_challenges.clear();
+	}
+
+	@Override
+	public void setUsername(String username) {
+		super.setUsername(username);
+
+		_challenges.clear();
+	}
+
+	@Override
+	protected Map<String, String> createHeaders() {
+		return Collections.emptyMap();
+	}
+
+	protected String getAuthorization(
+		Challenge challenge, String method, String uri) {
+
+		String cnonce = getClientNonce();
+
+		String ha1 = md5(username + ":" + challenge.realm + ":" + password);
+
+		if ("MD5-sess".equalsIgnoreCase(challenge.algorithm)) {
+			ha1 = md5(ha1 + ":" + challenge.nonce + ":" + cnonce);
+		}
+
+		String ha2 = md5(method + ":" + uri);
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("Digest username=\"");
+		sb.append(username);
+		sb.append("\", realm=\"");
+		sb.append(challenge.realm);
+		sb.append("\", nonce=\"");
+		sb.append(challenge.nonce);
+		sb.append("\", uri=\"");
+		sb.append(uri);
+		sb.append("\", response=\"");
+
+		if (challenge.qop) {
+			String nc = String.format(
+				"%08x", challenge.nonceCount.incrementAndGet());
+
+			sb.append(
+				md5(
+					ha1 + ":" + challenge.nonce + ":" + nc + ":" + cnonce +
+						":auth:" + ha2));
+
+			sb.append("\", qop=auth, nc=");
+			sb.append(nc);
+			sb.append(", cnonce=\"");
+			sb.append(cnonce);
+		}
+		else {
+			sb.append(md5(ha1 + ":" + challenge.nonce + ":" + ha2));
+		}
+
+		sb.append("\"");
+
+		if (challenge.algorithm != null) {
+			sb.append(", algorithm=");
+			sb.append(challenge.algorithm);
+		}
+
+		if (challenge.opaque != null) {
+			sb.append(", opaque=\"");
+			sb.append(challenge.opaque);
+			sb.append("\"");
+		}
+
+		return sb.toString();
+	}
+
+	protected String getClientNonce() {
+		return Long.toHexString(_random.nextLong());
+	}
+
+	protected String getURI(URL url) {
+		String uri = url.getFile();
+
+		if (uri.length() == 0) {
+			return "/";
+		}
+
+		return uri;
+	}
+
+	protected String md5(String value) {
+		return ByteString.encodeUtf8(value).md5().hex();
+	}
+
+	protected Challenge parseChallenge(Response response) {
+		for (String header : response.headers(Headers.WWW_AUTHENTICATE)) {
+			if (!header.regionMatches(true, 0, _SCHEME, 0, _SCHEME.length())) {
+				continue;
+			}
+
+			Map<String, String> params = parseParams(
+				header.substring(_SCHEME.length()));
+
+			String nonce = params.get("nonce");
+
+			if (nonce == null) {
+				continue;
+			}
+
+			String qop = params.get("qop");
+
+			return new Challenge(
+				params.get("realm"), nonce, params.get("opaque"),
+				params.get("algorithm"),
+				(qop != null) && qop.toLowerCase().matches("(.*,)?auth(,.*)?"),
+				"true".equalsIgnoreCase(params.get("stale")));
+		}
+
+		return null;
+	}
+
+	protected Map<String, String> parseParams(String value) {
+		Map<String, String> params = new HashMap<String, String>();
+
+		int i = 0;
+		int length = value.length();
+
+		while (i < length) {
+			while ((i < length) &&
+				   ((value.charAt(i) == CharPool.COMMA) ||
+					Character.isWhitespace(value.charAt(i)))) {
+
+				i++;
+			}
+
+			int equals = value.indexOf(CharPool.EQUAL, i);
+
+			if (equals == -1) {
+				break;
+			}
+
+			String name = value.substring(i, equals).trim().toLowerCase();
+
+			i = equals + 1;
+
+			StringBuilder sb = new StringBuilder();
+
+			if ((i < length) && (value.charAt(i) == CharPool.QUOTE)) {
+				i++;
+
+				while ((i < length) && (value.charAt(i) != CharPool.QUOTE)) {
+					if ((value.charAt(i) == CharPool.BACK_SLASH) &&
+						((i + 1) < length)) {
+
+						i++;
+					}
+
+					sb.append(value.charAt(i++));
+				}
+
+				i++;
+			}
+			else {
+				while ((i < length) && (value.charAt(i) != CharPool.COMMA)) {
+					sb.append(value.charAt(i++));
+				}
+			}
+
+			params.put(name, sb.toString().trim());
+		}
+
+		return params;
+	}
+
+	private static final String _SCHEME = "Digest ";
+
+	private final Map<String, Challenge> _challenges =
+		new ConcurrentHashMap<String, Challenge>();
+	private final SecureRandom _random = new SecureRandom();
+
+	protected static class Challenge {
+
+		public Challenge(
+			String realm, String nonce, String opaque, String algorithm,
+			boolean qop, boolean stale) {
+
+			this.realm = realm;
+			this.nonce = nonce;
+			this.opaque = opaque;
+			this.algorithm = algorithm;
+			this.qop = qop;
+			this.stale = stale;
+		}
+
+		protected final String algorithm;
+		protected final AtomicInteger nonceCount = new AtomicInteger();
+		protected final String nonce;
+		protected final String opaque;
+		protected final boolean qop;
+		protected final String realm;
+		protected final boolean stale;
+
+	}
+
+}
@@ -53,8 +53,7 @@ public abstract class BaseCallback<T> implements Callback {
 	@Override
 	public void inBackground(Response response) {
 		try {
-			String body = response.getBody();
-			doSuccess(inBackground(new JSONArray(body)));
+			doSuccess(inBackground(response.getBodyAsJSONArray()));
 		}
 		catch (Exception e) {
 			doFailure(e);
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.callback;
+
+import org.json.JSONArray;
+
+/**
+ * @author Bruno Farache
+ */
+public class CallbackListener<T> implements Promise.Listener<JSONArray> {
+
+	public static <T> CallbackListener<T> create(BaseCallback<T> callback) {
+		return new CallbackListener<T>(callback);
+	}
+
+	public CallbackListener(BaseCallback<T> callback) {
+		this.callback = callback;
+	}
+
+	@Override
+	public void onFailure(Exception exception) {
+		callback.doFailure(exception);
+	}
+
+	@Override
+	public void onSuccess(JSONArray result) {
+		try {
+			callback.doSuccess(callback.inBackground(result));
+		}
+		catch (Exception e) {
+			callback.doFailure(e);
+		}
+	}
+
+	protected BaseCallback<T> callback;
+
+}
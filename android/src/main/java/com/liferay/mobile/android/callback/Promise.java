@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.callback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Bruno Farache
+ */
+public class Promise<T> implements Future<T> {
+
+	public static <T> Promise<List<T>> all(final List<Promise<T>> promises) {
+		final Promise<List<T>> all = new Promise<List<T>>();
+
+		if (promises.isEmpty()) {
+			all.complete(new ArrayList<T>());
+
+			return all;
+		}
+
+		final List<T> results = new ArrayList<T>(promises.size());
+
+		for (int i = 0; i < promises.size(); i++) {
+			results.add(null);
+		}
+
+		final AtomicInteger remaining = new AtomicInteger(promises.size());
+
+		for (int i = 0; i < promises.size(); i++) {
+			final int index = i;
+
+			promises.get(i).addListener(new Listener<T>() {
+
+				@Override
+				public void onFailure(Exception exception) {
+					all.completeExceptionally(exception);
+				}
+
+				@Override
+				public void onSuccess(T result) {
+					synchronized (results) {
+						results.set(index, result);
+					}
+
+					if (remaining.decrementAndGet() == 0) {
+						all.complete(results);
+					}
+				}
+
+			});
+		}
+
+		return all;
+	}
+
+	public static <T> Promise<T> failed(Exception exception) {
+		Promise<T> promise = new Promise<T>();
+
+		promise.completeExceptionally(exception);
+
+		return promise;
+	}
+
+	public void addListener(Listener<? super T> listener) {
+		synchronized (this) {
+			if (!_done) {
+				_listeners.add(listener);
+
+				return;
+			}
+		}
+
+		fire(listener);
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return completeExceptionally(
+			new CancellationException("Promise was cancelled"));
+	}
+
+	public boolean complete(T result) {
+		return complete(result, null);
+	}
+
+	public boolean completeExceptionally(Exception exception) {
+		return complete(null, exception);
+	}
+
+	@Override
+	public T get() throws ExecutionException, InterruptedException {
+		synchronized (this) {
+			while (!_done) {
+				wait();
+			}
+		}
+
+		return getResult();
+	}
+
+	@Override
+	public T get(long timeout, TimeUnit unit)
+		throws ExecutionException, InterruptedException, TimeoutException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		synchronized (this) {
+			while (!_done) {
+				long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0) {
+					throw new TimeoutException();
+				}
+
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+		}
+
+		return getResult();
+	}
+
+	@Override
+	public synchronized boolean isCancelled() {
+		return _exception instanceof CancellationException;
+	}
+
+	@Override
+	public synchronized boolean isDone() {
+		return _done;
+	}
+
+	public T join() throws Exception {
+		try {
+			return get();
+		}
+		catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+
+			if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+
+			throw (Exception)cause;
+		}
+	}
+
+	public <R> Promise<R> thenApply(final Function<? super T, R> function) {
+		final Promise<R> promise = new Promise<R>();
+
+		addListener(new Listener<T>() {
+
+			@Override
+			public void onFailure(Exception exception) {
+				promise.completeExceptionally(exception);
+			}
+
+			@Override
+			public void onSuccess(T result) {
+				try {
+					promise.complete(function.apply(result));
+				}
+				catch (Exception e) {
+					promise.completeExceptionally(e);
+				}
+				catch (Error e) {
+					promise.complete(null, e);
+				}
+			}
+
+		});
+
+		return promise;
+	}
+
+	public <R> Promise<R> thenCompose(
+		final Function<? super T, Promise<R>> function) {
+
+		final Promise<R> promise = new Promise<R>();
+
+		addListener(new Listener<T>() {
+
+			@Override
+			public void onFailure(Exception exception) {
+				promise.completeExceptionally(exception);
+			}
+
+			@Override
+			public void onSuccess(T result) {
+				try {
+					function.apply(result).addListener(new Listener<R>() {
+
+						@Override
+						public void onFailure(Exception exception) {
+							promise.completeExceptionally(exception);
+						}
+
+						@Override
+						public void onSuccess(R result) {
+							promise.complete(result);
+						}
+
+					});
+				}
+				catch (Exception e) {
+					promise.completeExceptionally(e);
+				}
+				catch (Error e) {
+					promise.complete(null, e);
+				}
+			}
+
+		});
+
+		return promise;
+	}
+
+	public interface Function<T, R> {
+
+		R apply(T t) throws Exception;
+
+	}
+
+	public interface Listener<T> {
+
+		void onFailure(Exception exception);
+
+		void onSuccess(T result);
+
+	}
+
+	protected boolean complete(T result, Throwable exception) {
+		List<Listener<? super T>> listeners;
+
+		synchronized (this) {
+			if (_done) {
+				return false;
+			}
+
+			_result = result;
+			_exception = exception;
+			_done = true;
+
+			listeners = _listeners;
+
+			_listeners = null;
+
+			notifyAll();
+		}
+
+		for (Listener<? super T> listener : listeners) {
+			fire(listener);
+		}
+
+		return true;
+	}
+
+	protected void fire(Listener<? super T> listener) {
+		Throwable exception;
+		T result;
+
+		synchronized (this) {
+			exception = _exception;
+			result = _result;
+		}
+
+		if (exception instanceof Exception) {
+			listener.onFailure((Exception)exception);
+		}
+		else if (exception != null) {
+			listener.onFailure(new ExecutionException(exception));
+		}
+		else {
+			listener.onSuccess(result);
+		}
+	}
+
+	protected synchronized T getResult() throws ExecutionException {
+		if (_exception instanceof CancellationException) {
+			throw (CancellationException)_exception;
+		}
+
+		if (_exception != null) {
+			throw new ExecutionException(_exception);
+		}
+
+		return _result;
+	}
+
+	private boolean _done;
+	private Throwable _exception;
+	private List<Listener<? super T>> _listeners =
+		new ArrayList<Listener<? super T>>();
+	private T _result;
+
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.callback;
+
+import com.liferay.mobile.android.http.Response;
+
+import org.json.JSONArray;
+
+/**
+ * @author Bruno Farache
+ */
+public class PromiseCallback implements Callback {
+
+	public PromiseCallback(Promise<JSONArray> promise) {
+		this.promise = promise;
+	}
+
+	@Override
+	public void doFailure(Exception exception) {
+		promise.completeExceptionally(exception);
+	}
+
+	public Promise<JSONArray> getPromise() {
+		return promise;
+	}
+
+	@Override
+	public void inBackground(Response response) {
+		try {
+			promise.complete(response.getBodyAsJSONArray());
+		}
+		catch (Exception e) {
+			doFailure(e);
+		}
+	}
+
+	protected Promise<JSONArray> promise;
+
+}
@@ -17,6 +17,11 @@ package com.liferay.mobile.android.callback.file;
 import com.liferay.mobile.android.callback.Callback;
 import com.liferay.mobile.android.http.Response;
 
+import com.squareup.okhttp.internal.Util;
+
+import okio.Sink;
+
+import static com.liferay.mobile.android.http.file.FileProgressUtil.setLength;
 import static com.liferay.mobile.android.http.file.FileProgressUtil.transfer;
 
 /**
@@ -27,20 +32,42 @@ public class DownloadCallback implements Callback {
 	public DownloadCallback(
 		Callback callback, FileProgressCallback fileProgressCallback) {
 
+		this(callback, fileProgressCallback, null);
+	}
+
+	public DownloadCallback(
+		Callback callback, FileProgressCallback fileProgressCallback,
+		Sink sink) {
+
 		this.callback = callback;
 		this.fileProgressCallback = fileProgressCallback;
+		this.sink = sink;
 	}
 
 	@Override
 	public void doFailure(Exception exception) {
+		if (sink != null) {
+			Util.closeQuietly(sink);
+		}
+
 		callback.doFailure(exception);
 	}
 
 	@Override
 	public void inBackground(Response response) {
 		try {
-			transfer(
-				response.getBodyAsStream(), fileProgressCallback, tag, null);
+			setLength(fileProgressCallback, response);
+
+			if (sink != null) {
+				transfer(
+					response.getBodyAsSource(), fileProgressCallback, tag,
+					sink);
+			}
+			else {
+				transfer(
+					response.getBodyAsStream(), fileProgressCallback, tag,
+					null);
+			}
 
 			callback.inBackground(response);
 		}
@@ -55,6 +82,7 @@ public class DownloadCallback implements Callback {
 
 	protected Callback callback;
 	protected FileProgressCallback fileProgressCallback;
+	protected Sink sink;
 	protected Object tag;
 
 }
\ No newline at end of file
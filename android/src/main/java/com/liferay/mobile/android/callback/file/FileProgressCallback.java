@@ -14,6 +14,8 @@
 
 package com.liferay.mobile.android.callback.file;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static com.liferay.mobile.android.callback.MainThreadRunner.run;
 
 /**
@@ -21,6 +23,24 @@ import static com.liferay.mobile.android.callback.MainThreadRunner.run;
  */
 public abstract class FileProgressCallback {
 
+	public void flush() {
+		if (isThrottled() && (_dispatched != total)) {
+			dispatch();
+		}
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public int getMinInterval() {
+		return minInterval;
+	}
+
+	public int getMinPercent() {
+		return minPercent;
+	}
+
 	public int getTotal() {
 		return total;
 	}
@@ -28,14 +48,22 @@ public abstract class FileProgressCallback {
 	public void increment(int bytesLength) {
 		total = total + bytesLength;
 
-		run(new Runnable() {
+		if (!isThrottled()) {
+			run(new Runnable() {
 
-			@Override
-			public void run() {
-				onProgress(total);
-			}
+				@Override
+				public void run() {
+					onProgress(total);
+				}
 
-		});
+			});
+
+			return;
+		}
+
+		if (isDue()) {
+			dispatch();
+		}
 	}
 
 	public boolean isCancelled() {
@@ -47,11 +75,91 @@ public abstract class FileProgressCallback {
 
 	public abstract void onProgress(int totalBytes);
 
+	public void restore(long bytesLength) {
+
+		// Bytes already on disk from an earlier attempt, reported in chunks
+		// since the running total is an int
+
+		while (bytesLength > 0) {
+			int chunk = (int)Math.min(bytesLength, Integer.MAX_VALUE);
+
+			increment(chunk);
+
+			bytesLength -= chunk;
+		}
+	}
+
 	public void setCancelled(boolean cancelled) {
 		this.cancelled = cancelled;
 	}
 
+	public void setLength(long length) {
+		this.length = length;
+	}
+
+	public void setThrottle(int minInterval, int minPercent) {
+		this.minInterval = minInterval;
+		this.minPercent = minPercent;
+	}
+
+	protected void dispatch() {
+		_lastDispatchTime = System.nanoTime();
+		_lastDispatchTotal = total;
+
+		if (_pending.getAndSet(true)) {
+			return;
+		}
+
+		run(new Runnable() {
+
+			@Override
+			public void run() {
+				_pending.set(false);
+
+				int current = total;
+
+				_dispatched = current;
+
+				onProgress(current);
+			}
+
+		});
+	}
+
+	protected boolean isDue() {
+		if ((length > 0) && (total >= length)) {
+			return true;
+		}
+
+		if ((minInterval > 0) &&
+			((System.nanoTime() - _lastDispatchTime) >=
+				(minInterval * 1000000L))) {
+
+			return true;
+		}
+
+		if ((minPercent > 0) && (length > 0) &&
+			(((total - _lastDispatchTotal) * 100L) >= (minPercent * length))) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	protected boolean isThrottled() {
+		return (minInterval > 0) || (minPercent > 0);
+	}
+
 	protected boolean cancelled;
-	protected int total;
+	protected long length = -1;
+	protected int minInterval;
+	protected int minPercent;
+	protected volatile int total;
+
+	private volatile int _dispatched;
+	private long _lastDispatchTime;
+	private int _lastDispatchTotal;
+	private final AtomicBoolean _pending = new AtomicBoolean();
 
-}
\ No newline at end of file
+}
@@ -25,6 +25,11 @@ import org.json.JSONArray;
  */
 public class UploadCallback<T> implements Callback {
 
+	/**
+	 * @deprecated As of 7.0.4, replaced by {@link
+	 *             Response#getBodyAsJSONValue()}
+	 */
+	@Deprecated
 	public static String wrap(String body) {
 		return "[" + body + "]";
 	}
@@ -41,8 +46,10 @@ public class UploadCallback<T> implements Callback {
 	@Override
 	public void inBackground(Response response) {
 		try {
-			String body = wrap(response.getBody());
-			callback.doSuccess(callback.inBackground(new JSONArray(body)));
+			JSONArray result = new JSONArray();
+			result.put(response.getBodyAsJSONValue());
+
+			callback.doSuccess(callback.inBackground(result));
 		}
 		catch (Exception e) {
 			doFailure(e);
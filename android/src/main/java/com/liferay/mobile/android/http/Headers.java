@@ -19,16 +19,28 @@ package com.liferay.mobile.android.http;
  */
 public class Headers {
 
+	public static final String ACCEPT_RANGES = "Accept-Ranges";
+
 	public static final String AUTHORIZATION = "Authorization";
 
+	public static final String CONTENT_LENGTH = "Content-Length";
+
+	public static final String ETAG = "ETag";
+
 	public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
 
+	public static final String IF_NONE_MATCH = "If-None-Match";
+
+	public static final String IF_RANGE = "If-Range";
+
 	public static final String LAST_MODIFIED = "Last-Modified";
 
 	public static final String LIFERAY_PORTAL = "Liferay-Portal";
 
 	public static final String LOCATION = "Location";
 
+	public static final String RANGE = "Range";
+
 	public static final String WWW_AUTHENTICATE = "WWW-Authenticate";
 
 }
\ No newline at end of file
@@ -23,9 +23,18 @@ import com.liferay.mobile.android.http.client.HttpClient;
 import com.liferay.mobile.android.http.client.OkHttpClientImpl;
 import com.liferay.mobile.android.service.Session;
 
+import java.io.File;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okio.Okio;
+import okio.Sink;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import static com.liferay.mobile.android.http.file.FileProgressUtil.setLength;
 import static com.liferay.mobile.android.http.file.FileProgressUtil.transfer;
 
 /**
@@ -42,6 +51,14 @@ public class HttpUtil {
 		client.cancel(tag);
 	}
 
+	public static Response download(
+			Session session, String url, File file,
+			FileProgressCallback callback)
+		throws Exception {
+
+		return download(session, url, Okio.sink(file), callback);
+	}
+
 	public static Response download(
 			Session session, String url, FileProgressCallback callback)
 		throws Exception {
@@ -66,6 +83,8 @@ public class HttpUtil {
 			return null;
 		}
 		else {
+			setLength(callback, response);
+
 			transfer(
 				response.getBodyAsStream(), callback, request.getTag(), null);
 
@@ -73,22 +92,94 @@ public class HttpUtil {
 		}
 	}
 
+	public static Response download(
+			Session session, String url, Map<String, String> headers, Sink sink,
+			FileProgressCallback callback)
+		throws Exception {
+
+		Callback sessionCallback = session.getCallback();
+
+		if (sessionCallback != null) {
+			sessionCallback = new DownloadCallback(
+				sessionCallback, callback, sink);
+		}
+
+		Request request = new Request(
+			session.getAuthentication(), Method.GET, headers, url, null,
+			session.getConnectionTimeout(), sessionCallback);
+
+		if (sessionCallback != null) {
+			((DownloadCallback)sessionCallback).setTag(request.getTag());
+		}
+
+		Response response;
+
+		try {
+			response = send(request);
+		}
+		catch (Exception e) {
+			sink.close();
+
+			throw e;
+		}
+
+		if (response == null) {
+			return null;
+		}
+		else {
+			setLength(callback, response);
+
+			transfer(
+				response.getBodyAsSource(), callback, request.getTag(), sink);
+
+			return response;
+		}
+	}
+
+	public static Response download(
+			Session session, String url, Sink sink,
+			FileProgressCallback callback)
+		throws Exception {
+
+		return download(session, url, session.getHeaders(), sink, callback);
+	}
+
 	public static String encodeURLPath(String path) {
 		return client.encodeURL(path);
 	}
 
-	public static String getURL(Session session, String path) {
-		StringBuilder sb = new StringBuilder();
+	public static HttpClient getClient() {
+		return client;
+	}
+
+	public static String getJSONWSPath(String server) {
+		String jsonwsPath = _jsonwsPaths.get(server);
+
+		if (jsonwsPath == null) {
+			jsonwsPath = _JSONWS_PATH;
+		}
+
+		return jsonwsPath;
+	}
 
+	public static String getURL(Session session, String path) {
 		String server = session.getServer();
 
+		return getURL(server, getJSONWSPath(server), path);
+	}
+
+	public static String getURL(
+		String server, String jsonwsPath, String path) {
+
+		StringBuilder sb = new StringBuilder();
+
 		sb.append(server);
 
 		if (!server.endsWith("/")) {
 			sb.append("/");
 		}
 
-		sb.append(_JSONWS_PATH);
+		sb.append(jsonwsPath);
 		sb.append(path);
 
 		return sb.toString();
@@ -97,12 +188,18 @@ public class HttpUtil {
 	public static JSONArray post(Session session, JSONArray commands)
 		throws Exception {
 
+		return post(session, commands, session.getCallback());
+	}
+
+	public static JSONArray post(
+			Session session, JSONArray commands, Callback callback)
+		throws Exception {
+
 		String url = getURL(session, "/invoke");
 
 		Request request = new Request(
 			session.getAuthentication(), Method.POST, session.getHeaders(), url,
-			commands.toString(), session.getConnectionTimeout(),
-			session.getCallback());
+			commands.toString(), session.getConnectionTimeout(), callback);
 
 		Response response = client.send(request);
 
@@ -110,28 +207,76 @@ public class HttpUtil {
 			return null;
 		}
 		else {
-			return new JSONArray(response.getBody());
+			return response.getBodyAsJSONArray();
 		}
 	}
 
 	public static JSONArray post(Session session, JSONObject command)
 		throws Exception {
 
+		return post(session, command, session.getCallback());
+	}
+
+	public static JSONArray post(
+			Session session, JSONObject command, Callback callback)
+		throws Exception {
+
 		JSONArray commands = new JSONArray();
 		commands.put(command);
 
-		return post(session, commands);
+		return post(session, commands, callback);
 	}
 
 	public static Response send(Request request) throws Exception {
 		return client.send(request);
 	}
 
+	public static JSONArrayReader stream(Session session, JSONObject command)
+		throws Exception {
+
+		JSONArray commands = new JSONArray();
+		commands.put(command);
+
+		Request request = new Request(
+			session.getAuthentication(), Method.POST, session.getHeaders(),
+			getURL(session, "/invoke"), commands.toString(),
+			session.getConnectionTimeout(), null);
+
+		Response response = client.send(request);
+
+		JSONArrayReader reader = response.getBodyAsJSONArrayReader();
+
+		try {
+			reader.beginArray();
+			reader.beginArray();
+		}
+		catch (Exception e) {
+			reader.close();
+
+			throw e;
+		}
+
+		return reader;
+	}
+
+	public static void setClient(HttpClient client) {
+		HttpUtil.client = client;
+	}
+
 	@SuppressWarnings("unused")
 	public static void setJSONWSPath(String jsonwsPath) {
 		_JSONWS_PATH = jsonwsPath;
 	}
 
+	public static void setJSONWSPath(String server, String jsonwsPath) {
+		if (jsonwsPath == null) {
+			_jsonwsPaths.remove(server);
+		}
+		else {
+			_jsonwsPaths.put(server, jsonwsPath);
+		}
+	}
+
 	public static JSONArray upload(Session session, JSONObject command)
 		throws Exception {
 
@@ -154,12 +299,18 @@ public class HttpUtil {
 			return null;
 		}
 		else {
-			return new JSONArray(UploadCallback.wrap(response.getBody()));
+			JSONArray result = new JSONArray();
+			result.put(response.getBodyAsJSONValue());
+
+			return result;
 		}
 	}
 
-	protected static HttpClient client = new OkHttpClientImpl();
+	protected static volatile HttpClient client = new OkHttpClientImpl();
+
+	private static volatile String _JSONWS_PATH = JSONWS_PATH_62;
 
-	private static String _JSONWS_PATH = JSONWS_PATH_62;
+	private static final Map<String, String> _jsonwsPaths =
+		new ConcurrentHashMap<String, String>();
 
 }
\ No newline at end of file
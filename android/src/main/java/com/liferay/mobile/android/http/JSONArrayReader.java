@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http;
+
+import com.liferay.mobile.android.util.CharPool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import java.util.Arrays;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+/**
+ * @author Bruno Farache
+ */
+public class JSONArrayReader implements Closeable {
+
+	public JSONArrayReader(InputStream is) throws IOException {
+		this(new InputStreamReader(is, "UTF-8"));
+	}
+
+	public JSONArrayReader(Reader reader) {
+		_reader = reader;
+	}
+
+	public void beginArray() throws IOException, JSONException {
+		if (_depth > 0) {
+			consumeComma();
+		}
+
+		if (peek() != CharPool.OPEN_BRACKET) {
+			throw syntaxError("Expected '['");
+		}
+
+		_pos++;
+
+		if (_depth == _hasElements.length) {
+			_hasElements = Arrays.copyOf(_hasElements, _depth * 2);
+		}
+
+		_hasElements[_depth++] = false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		_reader.close();
+	}
+
+	public void endArray() throws IOException, JSONException {
+		while (hasNext()) {
+			skipValue();
+		}
+
+		_pos++;
+		_depth--;
+
+		if (_depth > 0) {
+			_hasElements[_depth - 1] = true;
+		}
+	}
+
+	public boolean hasNext() throws IOException, JSONException {
+		if (_depth == 0) {
+			throw new IllegalStateException("Not reading an array");
+		}
+
+		int c = peek();
+
+		if (c == CharPool.CLOSE_BRACKET) {
+			return false;
+		}
+
+		if (c == -1) {
+			throw syntaxError("Unterminated array");
+		}
+
+		return true;
+	}
+
+	public Object next() throws IOException, JSONException {
+		if (!hasNext()) {
+			throw syntaxError("No more elements");
+		}
+
+		return readValue();
+	}
+
+	public int peek() throws IOException {
+		skipWhitespace();
+
+		if ((_pos == _limit) && !fill()) {
+			return -1;
+		}
+
+		return _buffer[_pos];
+	}
+
+	public JSONArray readArray() throws IOException, JSONException {
+		JSONArray array = new JSONArray();
+
+		beginArray();
+
+		while (hasNext()) {
+			array.put(readValue());
+		}
+
+		endArray();
+
+		return array;
+	}
+
+	public Object readValue() throws IOException, JSONException {
+		String value = readValueAsString();
+
+		return new JSONTokener(value).nextValue();
+	}
+
+	public String readValueAsString() throws IOException, JSONException {
+		if (_depth > 0) {
+			consumeComma();
+		}
+
+		_value.setLength(0);
+
+		scanValue(_value);
+
+		if (_depth > 0) {
+			_hasElements[_depth - 1] = true;
+		}
+
+		return _value.toString();
+	}
+
+	public void skipValue() throws IOException, JSONException {
+		if (_depth > 0) {
+			consumeComma();
+		}
+
+		scanValue(null);
+
+		if (_depth > 0) {
+			_hasElements[_depth - 1] = true;
+		}
+	}
+
+	protected void consumeComma() throws IOException, JSONException {
+		if (!_hasElements[_depth - 1]) {
+			return;
+		}
+
+		if (peek() != CharPool.COMMA) {
+			throw syntaxError("Expected ','");
+		}
+
+		_pos++;
+		_hasElements[_depth - 1] = false;
+	}
+
+	protected boolean fill() throws IOException {
+		_limit = _reader.read(_buffer, 0, _buffer.length);
+		_pos = 0;
+
+		if (_limit <= 0) {
+			_limit = 0;
+
+			return false;
+		}
+
+		return true;
+	}
+
+	protected void scanValue(StringBuilder sb)
+		throws IOException, JSONException {
+
+		int c = peek();
+
+		if (c == -1) {
+			throw syntaxError("Unexpected end of input");
+		}
+
+		int depth = 0;
+		boolean escaped = false;
+		boolean literal = false;
+		boolean string = false;
+
+		if ((c != CharPool.OPEN_BRACKET) && (c != CharPool.OPEN_CURLY_BRACE) &&
+			(c != CharPool.QUOTE)) {
+
+			literal = true;
+		}
+
+		int start = _pos;
+
+		while (true) {
+			if (_pos == _limit) {
+				if (sb != null) {
+					sb.append(_buffer, start, _pos - start);
+				}
+
+				if (!fill()) {
+					if (literal) {
+						return;
+					}
+
+					throw syntaxError("Unterminated value");
+				}
+
+				start = 0;
+			}
+
+			char ch = _buffer[_pos];
+
+			if (literal) {
+				if ((ch == CharPool.COMMA) || (ch == CharPool.CLOSE_BRACKET) ||
+					(ch == CharPool.CLOSE_CURLY_BRACE) ||
+					Character.isWhitespace(ch)) {
+
+					break;
+				}
+			}
+			else if (string) {
+				if (escaped) {
+					escaped = false;
+				}
+				else if (ch == CharPool.BACK_SLASH) {
+					escaped = true;
+				}
+				else if (ch == CharPool.QUOTE) {
+					string = false;
+
+					if (depth == 0) {
+						_pos++;
+
+						break;
+					}
+				}
+			}
+			else if (ch == CharPool.QUOTE) {
+				string = true;
+			}
+			else if ((ch == CharPool.OPEN_BRACKET) ||
+					 (ch == CharPool.OPEN_CURLY_BRACE)) {
+
+				depth++;
+			}
+			else if ((ch == CharPool.CLOSE_BRACKET) ||
+					 (ch == CharPool.CLOSE_CURLY_BRACE)) {
+
+				depth--;
+
+				if (depth == 0) {
+					_pos++;
+
+					break;
+				}
+			}
+
+			_pos++;
+		}
+
+		if (sb != null) {
+			sb.append(_buffer, start, _pos - start);
+		}
+	}
+
+	protected void skipWhitespace() throws IOException {
+		while (true) {
+			if ((_pos == _limit) && !fill()) {
+				return;
+			}
+
+			if (!Character.isWhitespace(_buffer[_pos])) {
+				return;
+			}
+
+			_pos++;
+		}
+	}
+
+	protected JSONException syntaxError(String message) {
+		return new JSONException(message + " at depth " + _depth);
+	}
+
+	private static final int _BUFFER_SIZE = 8192;
+
+	private final char[] _buffer = new char[_BUFFER_SIZE];
+	private int _depth;
+	private boolean[] _hasElements = new boolean[8];
+	private int _limit;
+	private int _pos;
+	private final Reader _reader;
+	private final StringBuilder _value = new StringBuilder();
+
+}
\ No newline at end of file
@@ -17,6 +17,7 @@ package com.liferay.mobile.android.http;
 import com.liferay.mobile.android.auth.Authentication;
 import com.liferay.mobile.android.callback.Callback;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,7 +45,14 @@ public class Request {
 		_method = method;
 
 		if (headers != null) {
-			_headers = new HashMap<String, String>(headers);
+			_headers = headers;
+		}
+
+		// Async requests are sent later on another thread, so they can't keep
+		// reading the caller's live header map
+
+		if (callback != null) {
+			getHeaders();
 		}
 
 		_url = url;
@@ -83,6 +91,11 @@ public class Request {
 	}
 
 	public Map<String, String> getHeaders() {
+		if (!_copied) {
+			_headers = new HashMap<String, String>(_headers);
+			_copied = true;
+		}
+
 		return _headers;
 	}
 
@@ -98,6 +111,10 @@ public class Request {
 		return _url;
 	}
 
+	public Map<String, String> peekHeaders() {
+		return _headers;
+	}
+
 	public void setAuthentication(Authentication _authentication) {
 		this._authentication = _authentication;
 	}
@@ -116,6 +133,7 @@ public class Request {
 
 	public void setHeaders(Map<String, String> headers) {
 		_headers = headers;
+		_copied = true;
 	}
 
 	public void setMethod(Method method) {
@@ -130,7 +148,8 @@ public class Request {
 	private Object _body;
 	private Callback _callback;
 	private int _connectionTimeout;
-	private Map<String, String> _headers = new HashMap<String, String>();
+	private boolean _copied;
+	private Map<String, String> _headers = Collections.emptyMap();
 	private Method _method;
 	private Object _tag;
 	private String _url;
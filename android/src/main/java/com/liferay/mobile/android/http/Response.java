@@ -17,8 +17,12 @@ package com.liferay.mobile.android.http;
 import com.liferay.mobile.android.exception.AuthenticationException;
 import com.liferay.mobile.android.exception.RedirectException;
 import com.liferay.mobile.android.exception.ServerException;
+import com.liferay.mobile.android.util.CharPool;
 import com.liferay.mobile.android.util.Validator;
 
+import com.squareup.okhttp.ResponseBody;
+
+import java.io.IOException;
 import java.io.InputStream;
 
 import java.util.Collections;
@@ -26,6 +30,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import okio.BufferedSource;
+
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -42,6 +49,10 @@ public class Response {
 		_response = response;
 	}
 
+	public void close() throws IOException {
+		_response.body().close();
+	}
+
 	public String getBody() throws Exception {
 		String body = _response.body().string();
 
@@ -51,12 +62,86 @@ public class Response {
 		return body;
 	}
 
+	public JSONArray getBodyAsJSONArray() throws Exception {
+		JSONArrayReader reader = getBodyAsJSONArrayReader();
+
+		try {
+			return reader.readArray();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	public JSONArrayReader getBodyAsJSONArrayReader() throws Exception {
+		JSONArrayReader reader = getBodyAsReader();
+
+		try {
+			if (reader.peek() == CharPool.OPEN_CURLY_BRACE) {
+				checkPortalException((JSONObject)reader.readValue());
+
+				throw new JSONException("Expected a JSON array");
+			}
+
+			return reader;
+		}
+		catch (Exception e) {
+			reader.close();
+
+			throw e;
+		}
+	}
+
+	public Object getBodyAsJSONValue() throws Exception {
+		JSONArrayReader reader = getBodyAsReader();
+
+		try {
+			int c = reader.peek();
+
+			// An empty body decodes to an empty array, as it did when the
+			// body was wrapped in brackets
+
+			if (c == -1) {
+				return new JSONArray();
+			}
+
+			if (c == CharPool.OPEN_BRACKET) {
+				return reader.readArray();
+			}
+
+			// Arrays are decoded one element at a time, but org.json can only
+			// tokenize strings, so any other value is still buffered as a
+			// whole before it is decoded
+
+			Object value = reader.readValue();
+
+			if (value instanceof JSONObject) {
+				checkPortalException((JSONObject)value);
+			}
+
+			return value;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	public BufferedSource getBodyAsSource() throws Exception {
+		checkStatusCode();
+
+		return _response.body().source();
+	}
+
 	public InputStream getBodyAsStream() throws Exception {
 		checkStatusCode();
 
 		return _response.body().byteStream();
 	}
 
+	public String getHeader(String name) {
+		return _response.header(name);
+	}
+
 	public Map<String, String> getHeaders() {
 		Map<String, List<String>> headers = _response.headers().toMultimap();
 
@@ -73,31 +158,44 @@ public class Response {
 		return _response.code();
 	}
 
-	protected void checkPortalException(String json) throws ServerException {
-		try {
-			if (isJSONObject(json)) {
-				JSONObject jsonObj = new JSONObject(json);
+	protected void checkPortalException(JSONObject jsonObj)
+		throws ServerException {
 
-				if (jsonObj.has("exception")) {
-					String message = jsonObj.getString("exception");
-					String detail = jsonObj.optString("message", null);
+		if (!jsonObj.has("exception")) {
+			return;
+		}
 
-					JSONObject error = jsonObj.optJSONObject("error");
+		try {
+			String message = jsonObj.getString("exception");
+			String detail = jsonObj.optString("message", null);
 
-					if (error != null) {
-						message = error.getString("type");
-						detail = error.getString("message");
-					}
+			JSONObject error = jsonObj.optJSONObject("error");
 
-					if ((message != null) &&
-						message.equals("java.lang.SecurityException")) {
+			if (error != null) {
+				message = error.getString("type");
+				detail = error.getString("message");
+			}
 
-						throw new AuthenticationException(message, detail);
-					}
+			if ((message != null) &&
+				message.equals("java.lang.SecurityException")) {
 
-					throw new ServerException(message, detail);
-				}
+				throw new AuthenticationException(message, detail);
 			}
+
+			throw new ServerException(message, detail);
+		}
+		catch (JSONException je) {
+			throw new ServerException(je);
+		}
+	}
+
+	protected void checkPortalException(String json) throws ServerException {
+		if (!isJSONObject(json)) {
+			return;
+		}
+
+		try {
+			checkPortalException(new JSONObject(json));
 		}
 		catch (JSONException je) {
 			throw new ServerException(je);
@@ -126,12 +224,29 @@ public class Response {
 				"Authentication failed.", "HTTP Status Code 401");
 		}
 
-		if ((status != Status.OK) && (status != Status.INTERNAL_SERVER_ERROR)) {
+		if ((status != Status.OK) && (status != Status.PARTIAL_CONTENT) &&
+			(status != Status.INTERNAL_SERVER_ERROR)) {
+
 			throw new ServerException(
 				"Request failed. Response code: " + status);
 		}
 	}
 
+	protected JSONArrayReader getBodyAsReader() throws Exception {
+		ResponseBody body = _response.body();
+
+		try {
+			checkStatusCode();
+
+			return new JSONArrayReader(body.byteStream());
+		}
+		catch (Exception e) {
+			body.close();
+
+			throw e;
+		}
+	}
+
 	protected boolean isJSONObject(String json) {
 		if (Validator.isNotNull(json) && json.startsWith("{")) {
 			return true;
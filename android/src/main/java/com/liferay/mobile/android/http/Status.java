@@ -25,8 +25,12 @@ public class Status {
 
 	public static final int MOVED_TEMPORARILY = 302;
 
+	public static final int NOT_MODIFIED = 304;
+
 	public static final int OK = 200;
 
+	public static final int PARTIAL_CONTENT = 206;
+
 	public static final int SEE_OTHER = 303;
 
 	public static final int TEMPORARY_REDIRECT = 307;
@@ -15,27 +15,26 @@
 package com.liferay.mobile.android.http.client;
 
 import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.auth.AuthenticationUtil;
+import com.liferay.mobile.android.auth.HeadersAuthentication;
+import com.liferay.mobile.android.auth.basic.CookieAuthentication;
 import com.liferay.mobile.android.callback.Callback;
 import com.liferay.mobile.android.http.Method;
 import com.liferay.mobile.android.http.Request;
 import com.liferay.mobile.android.http.Response;
-import com.liferay.mobile.android.http.file.InputStreamBody;
-import com.liferay.mobile.android.http.file.UploadData;
+import com.liferay.mobile.android.http.file.MultipartUtil;
 
 import com.squareup.okhttp.Authenticator;
 import com.squareup.okhttp.Call;
 import com.squareup.okhttp.HttpUrl;
 import com.squareup.okhttp.MediaType;
-import com.squareup.okhttp.MultipartBuilder;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request.Builder;
 import com.squareup.okhttp.RequestBody;
 
 import java.io.IOException;
 
-import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import org.json.JSONObject;
 
@@ -45,12 +44,16 @@ import org.json.JSONObject;
 public class OkHttpClientImpl implements HttpClient {
 
 	public OkHttpClientImpl() {
-		client = new OkHttpClient();
+		this(OkHttpClientRegistry.getDefault());
+	}
+
+	public OkHttpClientImpl(OkHttpClientRegistry registry) {
+		this.registry = registry;
 	}
 
 	@Override
 	public void cancel(Object tag) {
-		client.cancel(tag);
+		registry.getDispatcher().cancel(tag);
 	}
 
 	@Override
@@ -89,66 +92,97 @@ public class OkHttpClientImpl implements HttpClient {
 	}
 
 	protected void addHeaders(Builder builder, Request request) {
-		Map<String, String> headers = request.getHeaders();
+		Map<String, String> headers = request.peekHeaders();
 
 		if (headers != null) {
 			for (Map.Entry<String, String> header : headers.entrySet()) {
 				builder.addHeader(header.getKey(), header.getValue());
 			}
 		}
-	}
-
-	protected void authenticate(OkHttpClient client, Request request)
-		throws Exception {
 
 		Authentication authentication = request.getAuthentication();
 
-		if (authentication != null) {
-			if (authentication instanceof Authenticator) {
-				client.setAuthenticator((Authenticator)authentication);
-			}
-			else {
-				authentication.authenticate(request);
+		if (authentication instanceof HeadersAuthentication) {
+			headers = ((HeadersAuthentication)authentication).getHeaders();
+
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				builder.header(header.getKey(), header.getValue());
 			}
 		}
 	}
 
-	protected OkHttpClient getClient(int connectionTimeout) {
-		OkHttpClient clone = client.clone();
+	protected Authenticator authenticate(Request request) throws Exception {
+		Authentication authentication = request.getAuthentication();
+
+		if (authentication == null) {
+			return null;
+		}
+
+		if (authentication instanceof Authenticator) {
+			authentication.authenticate(request);
+
+			return (Authenticator)authentication;
+		}
+
+		if (!AuthenticationUtil.isHeadersOnly(authentication)) {
+			authentication.authenticate(request);
+		}
+
+		return null;
+	}
+
+	protected OkHttpClient getClient(
+		int connectionTimeout, Authenticator authenticator) {
+
+		return registry.getClient(connectionTimeout, authenticator);
+	}
+
+	protected String getCookieHeader(Request request) {
+		Authentication authentication = request.getAuthentication();
 
-		clone.setConnectTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
-		clone.setReadTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
-		clone.setWriteTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+		if (!(authentication instanceof CookieAuthentication) ||
+			(request.getBody() instanceof JSONObject)) {
 
-		clone.setFollowRedirects(false);
+			return null;
+		}
 
-		return clone;
+		return ((CookieAuthentication)authentication).getCookieHeader();
 	}
 
 	protected RequestBody getUploadBody(Request request) {
-		JSONObject body = (JSONObject)request.getBody();
-		Object tag = request.getTag();
+		return MultipartUtil.getBody(
+			(JSONObject)request.getBody(), request.getTag());
+	}
 
-		MultipartBuilder builder = new MultipartBuilder()
-			.type(MultipartBuilder.FORM);
+	protected com.squareup.okhttp.Response renew(
+			OkHttpClient client, Request request, String cookieHeader,
+			com.squareup.okhttp.Response response)
+		throws Exception {
 
-		Iterator<String> it = body.keys();
+		if (cookieHeader == null) {
+			return response;
+		}
 
-		while (it.hasNext()) {
-			String key = it.next();
-			Object value = body.opt(key);
+		CookieAuthentication authentication =
+			(CookieAuthentication)request.getAuthentication();
 
-			if (value instanceof UploadData) {
-				UploadData data = (UploadData)value;
-				RequestBody requestBody = new InputStreamBody(data, tag);
-				builder.addFormDataPart(key, data.getFileName(), requestBody);
-			}
-			else {
-				builder.addFormDataPart(key, value.toString());
-			}
+		if (!authentication.isExpired(response) ||
+			!authentication.renew(cookieHeader)) {
+
+			return response;
 		}
 
-		return builder.build();
+		response.body().close();
+
+		Builder builder = response.request().newBuilder();
+
+		Map<String, String> headers = authentication.getHeaders();
+
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			builder.header(header.getKey(), header.getValue());
+		}
+
+		return client.newCall(builder.build()).execute();
 	}
 
 	protected Response send(Builder builder, final Request request)
@@ -157,25 +191,33 @@ public class OkHttpClientImpl implements HttpClient {
 		builder = builder.url(request.getURL());
 		builder.tag(request.getTag());
 
-		OkHttpClient client = getClient(request.getConnectionTimeout());
+		Authenticator authenticator = authenticate(request);
+
+		OkHttpClient client = getClient(
+			request.getConnectionTimeout(), authenticator);
 
-		authenticate(client, request);
 		addHeaders(builder, request);
 
+		String cookieHeader = getCookieHeader(request);
+
 		Call call = client.newCall(builder.build());
 
 		final Callback callback = request.getCallback();
 
 		if (callback == null) {
-			return new Response(call.execute());
+			return new Response(
+				renew(client, request, cookieHeader, call.execute()));
 		}
 		else {
-			sendAsync(call, callback);
+			sendAsync(client, request, cookieHeader, call, callback);
 			return null;
 		}
 	}
 
-	protected void sendAsync(Call call, final Callback callback) {
+	protected void sendAsync(
+		final OkHttpClient client, final Request request,
+		final String cookieHeader, Call call, final Callback callback) {
+
 		call.enqueue(new com.squareup.okhttp.Callback() {
 
 			@Override
@@ -189,12 +231,21 @@ public class OkHttpClientImpl implements HttpClient {
 			public void onResponse(com.squareup.okhttp.Response response)
 				throws IOException {
 
+				try {
+					response = renew(client, request, cookieHeader, response);
+				}
+				catch (Exception e) {
+					callback.doFailure(e);
+
+					return;
+				}
+
 				callback.inBackground(new Response(response));
 			}
 
 		});
 	}
 
-	protected OkHttpClient client;
+	protected OkHttpClientRegistry registry;
 
 }
\ No newline at end of file
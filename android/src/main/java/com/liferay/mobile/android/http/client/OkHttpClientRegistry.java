@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.client;
+
+import com.squareup.okhttp.Authenticator;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.OkHttpClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Bruno Farache
+ */
+public class OkHttpClientRegistry {
+
+	public static final int DEFAULT_KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+
+	public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+	public static final int DEFAULT_MAX_PROFILES = 32;
+
+	public static final int DEFAULT_MAX_REQUESTS = 64;
+
+	public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+	public static OkHttpClientRegistry getDefault() {
+		return _defaultRegistry;
+	}
+
+	public OkHttpClientRegistry() {
+		this(
+			DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_DURATION,
+			DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST);
+	}
+
+	public OkHttpClientRegistry(
+		int maxIdleConnections, long keepAliveDuration, int maxRequests,
+		int maxRequestsPerHost) {
+
+		_maxIdleConnections = maxIdleConnections;
+		_keepAliveDuration = keepAliveDuration;
+
+		_dispatcher = new Dispatcher();
+
+		_dispatcher.setMaxRequests(maxRequests);
+		_dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+		_client = createClient();
+	}
+
+	public synchronized void clear() {
+		_profiles.clear();
+	}
+
+	public OkHttpClient getClient() {
+		return _client;
+	}
+
+	public OkHttpClient getClient(
+		int connectionTimeout, Authenticator authenticator) {
+
+		Profile profile = new Profile(connectionTimeout, authenticator);
+
+		synchronized (this) {
+			OkHttpClient client = _profiles.get(profile);
+
+			if (client != null) {
+				_hits.incrementAndGet();
+
+				return client;
+			}
+
+			_misses.incrementAndGet();
+
+			client = _client.clone();
+
+			client.setConnectTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+			client.setReadTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+			client.setWriteTimeout(connectionTimeout, TimeUnit.MILLISECONDS);
+
+			client.setFollowRedirects(false);
+			client.setAuthenticator(authenticator);
+
+			_profiles.put(profile, client);
+
+			return client;
+		}
+	}
+
+	public int getConnectionCount() {
+		return _client.getConnectionPool().getConnectionCount();
+	}
+
+	public Dispatcher getDispatcher() {
+		return _dispatcher;
+	}
+
+	public long getHits() {
+		return _hits.get();
+	}
+
+	public int getIdleConnectionCount() {
+
+		// HTTP/1.1 connections are only kept by the pool while they are idle,
+		// multiplexed connections stay pooled while being used
+
+		return _client.getConnectionPool().getHttpConnectionCount();
+	}
+
+	public long getKeepAliveDuration() {
+		return _keepAliveDuration;
+	}
+
+	public int getMaxIdleConnections() {
+		return _maxIdleConnections;
+	}
+
+	public int getMaxRequests() {
+		return _dispatcher.getMaxRequests();
+	}
+
+	public int getMaxRequestsPerHost() {
+		return _dispatcher.getMaxRequestsPerHost();
+	}
+
+	public long getMisses() {
+		return _misses.get();
+	}
+
+	public int getMultiplexedConnectionCount() {
+		return _client.getConnectionPool().getMultiplexedConnectionCount();
+	}
+
+	public synchronized int getProfileCount() {
+		return _profiles.size();
+	}
+
+	public int getQueuedCallCount() {
+		return _dispatcher.getQueuedCallCount();
+	}
+
+	public int getRunningCallCount() {
+		return _dispatcher.getRunningCallCount();
+	}
+
+	public synchronized void setConnectionPool(
+		int maxIdleConnections, long keepAliveDuration) {
+
+		ConnectionPool pool = _client.getConnectionPool();
+
+		_maxIdleConnections = maxIdleConnections;
+		_keepAliveDuration = keepAliveDuration;
+
+		_client = createClient();
+		_profiles.clear();
+
+		pool.evictAll();
+	}
+
+	public void setMaxRequests(int maxRequests) {
+		_dispatcher.setMaxRequests(maxRequests);
+	}
+
+	public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+		_dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+	}
+
+	protected OkHttpClient createClient() {
+		OkHttpClient client = new OkHttpClient();
+
+		client.setConnectionPool(
+			new ConnectionPool(_maxIdleConnections, _keepAliveDuration));
+		client.setDispatcher(_dispatcher);
+
+		return client;
+	}
+
+	private static final OkHttpClientRegistry _defaultRegistry =
+		new OkHttpClientRegistry();
+
+	private volatile OkHttpClient _client;
+	private final Dispatcher _dispatcher;
+	private final AtomicLong _hits = new AtomicLong();
+	private long _keepAliveDuration;
+	private int _maxIdleConnections;
+	private final AtomicLong _misses = new AtomicLong();
+
+	private final Map<Profile, OkHttpClient> _profiles =
+		new LinkedHashMap<Profile, OkHttpClient>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<Profile, OkHttpClient> eldest) {
+
+				return size() > DEFAULT_MAX_PROFILES;
+			}
+
+		};
+
+	private static class Profile {
+
+		public Profile(int connectionTimeout, Authenticator authenticator) {
+			_connectionTimeout = connectionTimeout;
+			_authenticator = authenticator;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof Profile)) {
+				return false;
+			}
+
+			Profile profile = (Profile)obj;
+
+			return (_connectionTimeout == profile._connectionTimeout) &&
+				(_authenticator == profile._authenticator);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * _connectionTimeout) +
+				System.identityHashCode(_authenticator);
+		}
+
+		private final Authenticator _authenticator;
+		private final int _connectionTimeout;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,493 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.client;
+
+import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.auth.AuthenticationUtil;
+import com.liferay.mobile.android.auth.HeadersAuthentication;
+import com.liferay.mobile.android.auth.basic.CookieAuthentication;
+import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.Method;
+import com.liferay.mobile.android.http.Request;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.http.Status;
+import com.liferay.mobile.android.http.file.MultipartUtil;
+import com.liferay.mobile.android.util.NamedThreadFactory;
+
+import com.squareup.okhttp.Authenticator;
+import com.squareup.okhttp.HttpUrl;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class URLConnectionClientImpl implements HttpClient {
+
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			java.lang.reflect.Method method = Executors.class.getMethod(
+				"newVirtualThreadPerTaskExecutor");
+
+			return (ExecutorService)method.invoke(null);
+		}
+		catch (Exception e) {
+			return Executors.newCachedThreadPool(
+				new NamedThreadFactory("Liferay-URLConnection"));
+		}
+	}
+
+	public URLConnectionClientImpl() {
+		this(_executor);
+	}
+
+	public URLConnectionClientImpl(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void cancel(Object tag) {
+		List<Call> calls;
+
+		synchronized (_calls) {
+			calls = _calls.remove(tag);
+		}
+
+		if (calls == null) {
+			return;
+		}
+
+		for (Call call : calls) {
+			call.cancel();
+		}
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return HttpUrl.parse(url).toString();
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public Response send(Request request) throws Exception {
+		RequestBody body = null;
+
+		if (request.getMethod() == Method.POST) {
+			String json = (String)request.getBody();
+
+			if (json != null) {
+				MediaType type = MediaType.parse(
+					"application/json; charset=utf-8");
+
+				body = RequestBody.create(type, json);
+			}
+		}
+
+		return send(request, body);
+	}
+
+	@Override
+	public Response upload(Request request) throws Exception {
+		RequestBody body = MultipartUtil.getBody(
+			(JSONObject)request.getBody(), request.getTag());
+
+		return send(request, body);
+	}
+
+	protected Authenticator authenticate(Request request) throws Exception {
+		Authentication authentication = request.getAuthentication();
+
+		if (authentication == null) {
+			return null;
+		}
+
+		if (authentication instanceof Authenticator) {
+			authentication.authenticate(request);
+
+			return (Authenticator)authentication;
+		}
+
+		if (!AuthenticationUtil.isHeadersOnly(authentication)) {
+			authentication.authenticate(request);
+		}
+
+		return null;
+	}
+
+	protected com.squareup.okhttp.Response execute(Call call)
+		throws Exception {
+
+		Authenticator authenticator = authenticate(call.request);
+
+		String cookieHeader = getCookieHeader(call.request);
+
+		com.squareup.okhttp.Response response = execute(call, null);
+
+		if (cookieHeader != null) {
+			return renew(call, cookieHeader, response);
+		}
+
+		if ((response.code() != Status.UNAUTHORIZED) ||
+			(authenticator == null)) {
+
+			return response;
+		}
+
+		com.squareup.okhttp.Request retry = authenticator.authenticate(
+			Proxy.NO_PROXY, response);
+
+		if (retry == null) {
+			return response;
+		}
+
+		response.body().close();
+
+		return execute(call, retry.header(Headers.AUTHORIZATION));
+	}
+
+	protected com.squareup.okhttp.Response execute(
+			Call call, String authorization)
+		throws IOException {
+
+		Request request = call.request;
+		RequestBody body = call.body;
+		String method = request.getMethod().name();
+
+		URL url = new URL(request.getURL());
+
+		HttpURLConnection connection =
+			(HttpURLConnection)url.openConnection();
+
+		call.connection = connection;
+
+		if (call.cancelled) {
+			throw new IOException("Canceled");
+		}
+
+		connection.setConnectTimeout(request.getConnectionTimeout());
+		connection.setInstanceFollowRedirects(false);
+		connection.setReadTimeout(request.getConnectionTimeout());
+		connection.setRequestMethod(method);
+		connection.setUseCaches(false);
+
+		com.squareup.okhttp.Request.Builder builder =
+			new com.squareup.okhttp.Request.Builder();
+
+		builder.url(url);
+
+		if ((body == null) && (request.getMethod() == Method.POST)) {
+			builder.method(method, RequestBody.create(null, new byte[0]));
+		}
+		else {
+			builder.method(method, body);
+		}
+
+		Map<String, String> headers = request.peekHeaders();
+
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				builder.addHeader(header.getKey(), header.getValue());
+				connection.addRequestProperty(
+					header.getKey(), header.getValue());
+			}
+		}
+
+		Authentication authentication = request.getAuthentication();
+
+		if (authentication instanceof HeadersAuthentication) {
+			headers = ((HeadersAuthentication)authentication).getHeaders();
+
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				builder.header(header.getKey(), header.getValue());
+				connection.setRequestProperty(
+					header.getKey(), header.getValue());
+			}
+		}
+
+		if (authorization != null) {
+			builder.header(Headers.AUTHORIZATION, authorization);
+			connection.setRequestProperty(Headers.AUTHORIZATION, authorization);
+		}
+
+		if (body != null) {
+			writeBody(connection, body);
+		}
+
+		int code = connection.getResponseCode();
+
+		com.squareup.okhttp.Response.Builder responseBuilder =
+			new com.squareup.okhttp.Response.Builder()
+				.request(builder.build())
+				.protocol(Protocol.HTTP_1_1)
+				.code(code)
+				.message(connection.getResponseMessage());
+
+		Map<String, List<String>> fields = connection.getHeaderFields();
+
+		for (Map.Entry<String, List<String>> field : fields.entrySet()) {
+			if (field.getKey() == null) {
+				continue;
+			}
+
+			for (String value : field.getValue()) {
+				responseBuilder.addHeader(field.getKey(), value);
+			}
+		}
+
+		responseBuilder.body(getResponseBody(connection, code));
+
+		return responseBuilder.build();
+	}
+
+	protected String getCookieHeader(Request request) {
+		Authentication authentication = request.getAuthentication();
+
+		if (!(authentication instanceof CookieAuthentication) ||
+			(request.getBody() instanceof JSONObject)) {
+
+			return null;
+		}
+
+		return ((CookieAuthentication)authentication).getCookieHeader();
+	}
+
+	protected ResponseBody getResponseBody(
+			HttpURLConnection connection, int code)
+		throws IOException {
+
+		InputStream is;
+
+		if (code >= 400) {
+			is = connection.getErrorStream();
+		}
+		else {
+			is = connection.getInputStream();
+		}
+
+		BufferedSource source;
+		long length = connection.getContentLength();
+
+		if (is == null) {
+			source = new Buffer();
+			length = 0;
+		}
+		else {
+			source = Okio.buffer(Okio.source(is));
+		}
+
+		MediaType type = null;
+		String contentType = connection.getContentType();
+
+		if (contentType != null) {
+			type = MediaType.parse(contentType);
+		}
+
+		return ResponseBody.create(type, length, source);
+	}
+
+	protected void register(Call call) {
+		Object tag = call.request.getTag();
+
+		synchronized (_calls) {
+			List<Call> calls = _calls.get(tag);
+
+			if (calls == null) {
+				calls = new ArrayList<Call>(1);
+
+				_calls.put(tag, calls);
+			}
+
+			calls.add(call);
+		}
+	}
+
+	protected com.squareup.okhttp.Response renew(
+			Call call, String cookieHeader,
+			com.squareup.okhttp.Response response)
+		throws Exception {
+
+		CookieAuthentication authentication =
+			(CookieAuthentication)call.request.getAuthentication();
+
+		if (!authentication.isExpired(response) ||
+			!authentication.renew(cookieHeader)) {
+
+			return response;
+		}
+
+		response.body().close();
+
+		return execute(call, null);
+	}
+
+	protected Response send(final Request request, RequestBody body)
+		throws Exception {
+
+		final Call call = new Call(request, body);
+
+		register(call);
+
+		final Callback callback = request.getCallback();
+
+		if (callback == null) {
+			try {
+				return new Response(execute(call));
+			}
+			finally {
+				unregister(call);
+			}
+		}
+
+		call.future = executor.submit(
+			new Runnable() {
+
+				@Override
+				public void run() {
+					com.squareup.okhttp.Response response;
+
+					try {
+						response = execute(call);
+					}
+					catch (Exception e) {
+						callback.doFailure(e);
+
+						return;
+					}
+					finally {
+						unregister(call);
+					}
+
+					callback.inBackground(new Response(response));
+				}
+
+			});
+
+		return null;
+	}
+
+	protected void unregister(Call call) {
+		Object tag = call.request.getTag();
+
+		synchronized (_calls) {
+			List<Call> calls = _calls.get(tag);
+
+			if (calls == null) {
+				return;
+			}
+
+			calls.remove(call);
+
+			if (calls.isEmpty()) {
+				_calls.remove(tag);
+			}
+		}
+	}
+
+	protected void writeBody(HttpURLConnection connection, RequestBody body)
+		throws IOException {
+
+		connection.setDoOutput(true);
+
+		MediaType type = body.contentType();
+
+		if (type != null) {
+			connection.setRequestProperty("Content-Type", type.toString());
+		}
+
+		long length = body.contentLength();
+
+		if ((length >= 0) && (length <= Integer.MAX_VALUE)) {
+			connection.setFixedLengthStreamingMode((int)length);
+		}
+		else {
+			connection.setChunkedStreamingMode(0);
+		}
+
+		BufferedSink sink = Okio.buffer(
+			Okio.sink(connection.getOutputStream()));
+
+		try {
+			body.writeTo(sink);
+		}
+		finally {
+			sink.close();
+		}
+	}
+
+	protected ExecutorService executor;
+
+	private static final ExecutorService _executor =
+		Executors.newCachedThreadPool(
+			new NamedThreadFactory("Liferay-URLConnection"));
+
+	private final Map<Object, List<Call>> _calls =
+		new HashMap<Object, List<Call>>();
+
+	protected static class Call {
+
+		public Call(Request request, RequestBody body) {
+			this.request = request;
+			this.body = body;
+		}
+
+		public void cancel() {
+			cancelled = true;
+
+			if (future != null) {
+				future.cancel(true);
+			}
+
+			if (connection != null) {
+				connection.disconnect();
+			}
+		}
+
+		protected final RequestBody body;
+		protected volatile boolean cancelled;
+		protected volatile HttpURLConnection connection;
+		protected volatile Future<?> future;
+		protected final Request request;
+
+	}
+
+}
@@ -22,16 +22,75 @@ import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.util.PortalVersion;
 import com.liferay.mobile.android.util.Validator;
 
+import java.io.File;
+import java.io.InputStream;
+
 /**
  * @author Bruno Farache
  */
 public class DownloadUtil {
 
+	public static InputStream downloadWebDAVFile(
+			Session session, int portalVersion, String groupFriendlyURL,
+			String folderPath, String fileTitle, FileCache cache,
+			FileProgressCallback callback)
+		throws Exception {
+
+		checkAuthentication(session);
+
+		String url = getWebDAVFileURL(
+			session, portalVersion, groupFriendlyURL, folderPath, fileTitle);
+
+		return cache.get(session, url, callback);
+	}
+
+	public static void downloadWebDAVFile(
+			Session session, int portalVersion, String groupFriendlyURL,
+			String folderPath, String fileTitle, File file,
+			FileProgressCallback callback)
+		throws Exception {
+
+		checkAuthentication(session);
+
+		String url = getWebDAVFileURL(
+			session, portalVersion, groupFriendlyURL, folderPath, fileTitle);
+
+		HttpUtil.download(session, url, file, callback);
+	}
+
+	public static void downloadWebDAVFile(
+			Session session, int portalVersion, String groupFriendlyURL,
+			String folderPath, String fileTitle, File file, int segments,
+			FileProgressCallback callback)
+		throws Exception {
+
+		checkAuthentication(session);
+
+		String url = getWebDAVFileURL(
+			session, portalVersion, groupFriendlyURL, folderPath, fileTitle);
+
+		RangeDownloader downloader = new RangeDownloader(
+			session, url, file, segments);
+
+		downloader.download(callback);
+	}
+
 	public static void downloadWebDAVFile(
 			Session session, int portalVersion, String groupFriendlyURL,
 			String folderPath, String fileTitle, FileProgressCallback callback)
 		throws Exception {
 
+		checkAuthentication(session);
+
+		String url = getWebDAVFileURL(
+			session, portalVersion, groupFriendlyURL, folderPath, fileTitle);
+
+		HttpUtil.download(session, url, callback);
+	}
+
+	protected static void checkAuthentication(Session session)
+		throws Exception {
+
 		Authentication auth = session.getAuthentication();
 
 		if ((auth != null) && !(auth instanceof DigestAuthentication)) {
@@ -39,11 +98,6 @@ public class DownloadUtil {
 				"Can't download file if authentication implementation is not " +
 					"DigestAuthentication");
 		}
-
-		String url = getWebDAVFileURL(
-			session, portalVersion, groupFriendlyURL, folderPath, fileTitle);
-
-		HttpUtil.download(session, url, callback);
 	}
 
 	protected static String getWebDAVFileURL(
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.http.HttpUtil;
+
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.RequestBody;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import okio.BufferedSink;
+
+import static com.liferay.mobile.android.http.file.FileProgressUtil.isCancelled;
+
+/**
+ * @author Bruno Farache
+ */
+public class FileBody extends RequestBody {
+
+	public FileBody(UploadData data, Object tag) {
+		this.data = data;
+		this.tag = tag;
+	}
+
+	@Override
+	public long contentLength() {
+		return data.getLength();
+	}
+
+	@Override
+	public MediaType contentType() {
+		return MediaType.parse(data.getMimeType());
+	}
+
+	@Override
+	public void writeTo(BufferedSink sink) throws IOException {
+		FileProgressCallback callback = data.getCallback();
+
+		if ((callback != null) && (callback.getLength() < 0)) {
+			callback.setLength(data.getLength());
+		}
+
+		FileInputStream fis = new FileInputStream(data.getFile());
+
+		try {
+			FileChannel channel = fis.getChannel();
+
+			byte[] bytes = new byte[_BUFFER_SIZE];
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+			int read;
+
+			while (!isCancelled(callback) &&
+				   ((read = channel.read(buffer)) != -1)) {
+
+				sink.write(bytes, 0, read);
+
+				if (callback != null) {
+					callback.increment(read);
+				}
+
+				buffer.clear();
+			}
+
+			if (callback != null) {
+				callback.flush();
+			}
+
+			if (isCancelled(callback)) {
+				HttpUtil.cancel(tag);
+			}
+		}
+		finally {
+			fis.close();
+		}
+	}
+
+	protected UploadData data;
+	protected Object tag;
+
+	private static final int _BUFFER_SIZE = 64 * 1024;
+
+}
@@ -0,0 +1,538 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.exception.ServerException;
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.Method;
+import com.liferay.mobile.android.http.Request;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.http.Status;
+import com.liferay.mobile.android.service.Session;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+
+/**
+ * @author Bruno Farache
+ */
+public class FileCache {
+
+	public static final long DEFAULT_MAX_SIZE = 50 * 1024 * 1024;
+
+	public static String getKey(long fileEntryId, String version) {
+		return "entry:" + fileEntryId + ":" + version;
+	}
+
+	public FileCache(File directory) throws IOException {
+		this(directory, DEFAULT_MAX_SIZE);
+	}
+
+	public FileCache(File directory, long maxSize) throws IOException {
+		_directory = directory;
+		_maxSize = maxSize;
+
+		_directory.mkdirs();
+
+		load();
+	}
+
+	public synchronized void clear() {
+		for (CacheEntry entry : _entries.values()) {
+			release(entry);
+		}
+
+		_entries.clear();
+		_size = 0;
+	}
+
+	public synchronized InputStream get(String key) throws IOException {
+		CacheEntry entry = _entries.get(key);
+
+		if (entry == null) {
+			return null;
+		}
+
+		File file = getDataFile(entry.name);
+
+		file.setLastModified(System.currentTimeMillis());
+
+		return open(entry);
+	}
+
+	public InputStream get(
+			Session session, String url, FileProgressCallback callback)
+		throws Exception {
+
+		return get(session, url, url, callback);
+	}
+
+	public InputStream get(
+			Session session, String key, String url,
+			FileProgressCallback callback)
+		throws Exception {
+
+		CacheEntry entry;
+
+		synchronized (this) {
+			entry = _entries.get(key);
+		}
+
+		Map<String, String> headers = new HashMap<String, String>(
+			session.getHeaders());
+
+		if (entry != null) {
+			if (entry.etag != null) {
+				headers.put(Headers.IF_NONE_MATCH, entry.etag);
+			}
+
+			if (entry.lastModified != null) {
+				headers.put(Headers.IF_MODIFIED_SINCE, entry.lastModified);
+			}
+		}
+
+		Request request = new Request(
+			session.getAuthentication(), Method.GET, headers, url, null,
+			session.getConnectionTimeout(), null);
+
+		Response response = HttpUtil.send(request);
+
+		if ((entry != null) &&
+			(response.getStatusCode() == Status.NOT_MODIFIED)) {
+
+			_hits.incrementAndGet();
+			_revalidations.incrementAndGet();
+
+			InputStream is = get(key);
+
+			if (is != null) {
+				return is;
+			}
+
+			return get(session, key, url, callback);
+		}
+
+		_misses.incrementAndGet();
+
+		return put(
+			key, response, request.getTag(), callback,
+			response.getHeader(Headers.ETAG),
+			response.getHeader(Headers.LAST_MODIFIED));
+	}
+
+	public InputStream get(
+			Session session, String url, long fileEntryId, String version,
+			FileProgressCallback callback)
+		throws Exception {
+
+		String key = getKey(fileEntryId, version);
+
+		InputStream is = get(key);
+
+		if (is != null) {
+			_hits.incrementAndGet();
+
+			return is;
+		}
+
+		_misses.incrementAndGet();
+
+		Request request = new Request(
+			session.getAuthentication(), Method.GET, session.getHeaders(), url,
+			null, session.getConnectionTimeout(), null);
+
+		Response response = HttpUtil.send(request);
+
+		return put(key, response, request.getTag(), callback, null, null);
+	}
+
+	public synchronized int getCount() {
+		return _entries.size();
+	}
+
+	public long getEvictions() {
+		return _evictions.get();
+	}
+
+	public double getHitRatio() {
+		long hits = _hits.get();
+		long total = hits + _misses.get();
+
+		if (total == 0) {
+			return 0;
+		}
+
+		return (double)hits / total;
+	}
+
+	public long getHits() {
+		return _hits.get();
+	}
+
+	public long getMaxSize() {
+		return _maxSize;
+	}
+
+	public long getMisses() {
+		return _misses.get();
+	}
+
+	public long getRevalidations() {
+		return _revalidations.get();
+	}
+
+	public synchronized long getSize() {
+		return _size;
+	}
+
+	public synchronized boolean remove(String key) {
+		CacheEntry entry = _entries.remove(key);
+
+		if (entry == null) {
+			return false;
+		}
+
+		_size -= entry.size;
+
+		release(entry);
+
+		return true;
+	}
+
+	protected void delete(CacheEntry entry) {
+		getDataFile(entry.name).delete();
+		getMetaFile(entry.name).delete();
+	}
+
+	protected File getDataFile(String name) {
+		return new File(_directory, name + _DATA_EXTENSION);
+	}
+
+	protected File getMetaFile(String name) {
+		return new File(_directory, name + _META_EXTENSION);
+	}
+
+	protected String getName(String key) {
+		return ByteString.encodeUtf8(key).md5().hex();
+	}
+
+	protected void load() throws IOException {
+		File[] files = _directory.listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		List<CacheEntry> entries = new ArrayList<CacheEntry>();
+		final Map<CacheEntry, Long> accessTimes =
+			new HashMap<CacheEntry, Long>();
+
+		for (File file : files) {
+			String fileName = file.getName();
+
+			if (fileName.endsWith(_TEMP_EXTENSION)) {
+				file.delete();
+
+				continue;
+			}
+
+			if (!fileName.endsWith(_META_EXTENSION)) {
+				continue;
+			}
+
+			String name = fileName.substring(
+				0, fileName.length() - _META_EXTENSION.length());
+
+			File dataFile = getDataFile(name);
+
+			if (!dataFile.exists()) {
+				file.delete();
+
+				continue;
+			}
+
+			Properties properties = new Properties();
+
+			InputStream is = new FileInputStream(file);
+
+			try {
+				properties.load(is);
+			}
+			finally {
+				is.close();
+			}
+
+			String key = properties.getProperty("key");
+
+			if (key == null) {
+				file.delete();
+				dataFile.delete();
+
+				continue;
+			}
+
+			CacheEntry entry = new CacheEntry(
+				key, name, dataFile.length(),
+				properties.getProperty("etag"),
+				properties.getProperty("lastModified"));
+
+			entries.add(entry);
+			accessTimes.put(entry, dataFile.lastModified());
+		}
+
+		Collections.sort(
+			entries,
+			new Comparator<CacheEntry>() {
+
+				@Override
+				public int compare(CacheEntry entry1, CacheEntry entry2) {
+					return accessTimes.get(entry1).compareTo(
+						accessTimes.get(entry2));
+				}
+
+			});
+
+		synchronized (this) {
+			for (CacheEntry entry : entries) {
+				CacheEntry oldEntry = _entries.put(entry.key, entry);
+
+				if (oldEntry != null) {
+					_size -= oldEntry.size;
+
+					delete(oldEntry);
+				}
+
+				_size += entry.size;
+			}
+
+			trim();
+		}
+	}
+
+	protected synchronized InputStream open(CacheEntry entry)
+		throws IOException {
+
+		InputStream is = new FileInputStream(getDataFile(entry.name));
+
+		entry.readers++;
+
+		return new EntryInputStream(is, entry);
+	}
+
+	protected InputStream put(
+			String key, Response response, Object tag,
+			FileProgressCallback callback, String etag, String lastModified)
+		throws Exception {
+
+		BufferedSource source = response.getBodyAsSource();
+
+		if (response.getStatusCode() != Status.OK) {
+			source.close();
+
+			throw new ServerException(
+				"Request failed. Response code: " + response.getStatusCode());
+		}
+
+		// Each writer gets its own temp file and data file name, so concurrent
+		// downloads of the same key never publish each other's partial
+		// content and never replace a file that is still being read
+
+		File tempFile = File.createTempFile(
+			getName(key), _TEMP_EXTENSION, _directory);
+
+		try {
+			FileProgressUtil.transfer(
+				source, callback, tag, Okio.sink(tempFile));
+		}
+		catch (Exception e) {
+			tempFile.delete();
+
+			throw e;
+		}
+
+		if (FileProgressUtil.isCancelled(callback)) {
+			tempFile.delete();
+
+			return null;
+		}
+
+		Properties properties = new Properties();
+
+		properties.setProperty("key", key);
+
+		if (etag != null) {
+			properties.setProperty("etag", etag);
+		}
+
+		if (lastModified != null) {
+			properties.setProperty("lastModified", lastModified);
+		}
+
+		String tempFileName = tempFile.getName();
+
+		String name = tempFileName.substring(
+			0, tempFileName.length() - _TEMP_EXTENSION.length());
+
+		synchronized (this) {
+			remove(key);
+
+			File dataFile = getDataFile(name);
+
+			if (!tempFile.renameTo(dataFile)) {
+				tempFile.delete();
+
+				throw new IOException("Unable to move " + tempFile);
+			}
+
+			OutputStream os = new FileOutputStream(getMetaFile(name));
+
+			try {
+				properties.store(os, null);
+			}
+			finally {
+				os.close();
+			}
+
+			CacheEntry entry = new CacheEntry(
+				key, name, dataFile.length(), etag, lastModified);
+
+			_entries.put(key, entry);
+			_size += entry.size;
+
+			trim();
+
+			return open(entry);
+		}
+	}
+
+	protected synchronized void release(CacheEntry entry) {
+		entry.removed = true;
+
+		if (entry.readers == 0) {
+			delete(entry);
+		}
+	}
+
+	protected void trim() {
+		Iterator<CacheEntry> it = _entries.values().iterator();
+
+		while ((_size > _maxSize) && (_entries.size() > 1) && it.hasNext()) {
+			CacheEntry entry = it.next();
+
+			it.remove();
+
+			_size -= entry.size;
+
+			release(entry);
+
+			_evictions.incrementAndGet();
+		}
+	}
+
+	private static final String _DATA_EXTENSION = ".data";
+
+	private static final String _META_EXTENSION = ".meta";
+
+	private static final String _TEMP_EXTENSION = ".tmp";
+
+	private final File _directory;
+	private final Map<String, CacheEntry> _entries =
+		new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+	private final AtomicLong _evictions = new AtomicLong();
+	private final AtomicLong _hits = new AtomicLong();
+	private final long _maxSize;
+	private final AtomicLong _misses = new AtomicLong();
+	private final AtomicLong _revalidations = new AtomicLong();
+	private long _size;
+
+	private static class CacheEntry {
+
+		public CacheEntry(
+			String key, String name, long size, String etag,
+			String lastModified) {
+
+			this.key = key;
+			this.name = name;
+			this.size = size;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		protected final String etag;
+		protected final String key;
+		protected final String lastModified;
+		protected final String name;
+		protected int readers;
+		protected boolean removed;
+		protected final long size;
+
+	}
+
+	private class EntryInputStream extends FilterInputStream {
+
+		public EntryInputStream(InputStream is, CacheEntry entry) {
+			super(is);
+
+			_entry = entry;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				synchronized (FileCache.this) {
+					if (!_closed) {
+						_closed = true;
+
+						_entry.readers--;
+
+						if (_entry.removed && (_entry.readers == 0)) {
+							delete(_entry);
+						}
+					}
+				}
+			}
+		}
+
+		private boolean _closed;
+		private final CacheEntry _entry;
+
+	}
+
+}
@@ -15,7 +15,10 @@
 package com.liferay.mobile.android.http.file;
 
 import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.http.Headers;
 import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.util.Validator;
 
 import com.squareup.okhttp.internal.Util;
 
@@ -24,7 +27,9 @@ import java.io.InputStream;
 
 import okio.Buffer;
 import okio.BufferedSink;
+import okio.BufferedSource;
 import okio.Okio;
+import okio.Sink;
 import okio.Source;
 
 /**
@@ -36,6 +41,74 @@ public class FileProgressUtil {
 		return (callback != null) && callback.isCancelled();
 	}
 
+	public static void setLength(
+		FileProgressCallback callback, long length) {
+
+		if ((callback != null) && (callback.getLength() < 0) && (length >= 0)) {
+			callback.setLength(length);
+		}
+	}
+
+	public static void setLength(
+		FileProgressCallback callback, Response response) {
+
+		String length = response.getHeader(Headers.CONTENT_LENGTH);
+
+		if (Validator.isNull(length)) {
+			return;
+		}
+
+		try {
+			setLength(callback, Long.parseLong(length));
+		}
+		catch (NumberFormatException nfe) {
+		}
+	}
+
+	public static void transfer(
+			BufferedSource source, FileProgressCallback callback, Object tag,
+			Sink sink)
+		throws IOException {
+
+		Buffer buffer = new Buffer();
+
+		try {
+			boolean exhausted = false;
+
+			while (!exhausted && !isCancelled(callback)) {
+				long read = source.read(buffer, _SEGMENT_SIZE - buffer.size());
+
+				if (read == -1) {
+					exhausted = true;
+				}
+
+				long size = buffer.size();
+
+				if ((size >= _SEGMENT_SIZE) || (exhausted && (size > 0))) {
+					sink.write(buffer, size);
+
+					if (callback != null) {
+						callback.increment((int)size);
+					}
+				}
+			}
+
+			sink.close();
+
+			if (callback != null) {
+				callback.flush();
+			}
+
+			if (isCancelled(callback)) {
+				HttpUtil.cancel(tag);
+			}
+		}
+		finally {
+			Util.closeQuietly(source);
+			Util.closeQuietly(sink);
+		}
+	}
+
 	public static void transfer(
 			InputStream is, FileProgressCallback callback, Object tag,
 			BufferedSink sink)
@@ -60,6 +133,10 @@ public class FileProgressUtil {
 				}
 			}
 
+			if (callback != null) {
+				callback.flush();
+			}
+
 			if (isCancelled(callback)) {
 				HttpUtil.cancel(tag);
 			}
@@ -69,4 +146,6 @@ public class FileProgressUtil {
 		}
 	}
 
-}
\ No newline at end of file
+	private static final int _SEGMENT_SIZE = 64 * 1024;
+
+}
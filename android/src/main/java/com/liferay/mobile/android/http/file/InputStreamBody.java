@@ -21,6 +21,7 @@ import java.io.IOException;
 
 import okio.BufferedSink;
 
+import static com.liferay.mobile.android.http.file.FileProgressUtil.setLength;
 import static com.liferay.mobile.android.http.file.FileProgressUtil.transfer;
 
 /**
@@ -33,6 +34,11 @@ public class InputStreamBody extends RequestBody {
 		this.tag = tag;
 	}
 
+	@Override
+	public long contentLength() {
+		return data.getLength();
+	}
+
 	@Override
 	public MediaType contentType() {
 		return MediaType.parse(data.getMimeType());
@@ -40,6 +46,8 @@ public class InputStreamBody extends RequestBody {
 
 	@Override
 	public void writeTo(BufferedSink sink) throws IOException {
+		setLength(data.getCallback(), data.getLength());
+
 		transfer(data.getInputStream(), data.getCallback(), tag, sink);
 	}
 
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.squareup.okhttp.MultipartBuilder;
+import com.squareup.okhttp.RequestBody;
+
+import java.util.Iterator;
+
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class MultipartUtil {
+
+	public static RequestBody getBody(JSONObject body, Object tag) {
+		MultipartBuilder builder = new MultipartBuilder()
+			.type(MultipartBuilder.FORM);
+
+		Iterator<String> it = body.keys();
+
+		while (it.hasNext()) {
+			String key = it.next();
+			Object value = body.opt(key);
+
+			if (value instanceof UploadData) {
+				UploadData data = (UploadData)value;
+				RequestBody requestBody;
+
+				if (data.getFile() != null) {
+					requestBody = new FileBody(data, tag);
+				}
+				else {
+					requestBody = new InputStreamBody(data, tag);
+				}
+
+				builder.addFormDataPart(key, data.getFileName(), requestBody);
+			}
+			else {
+				builder.addFormDataPart(key, value.toString());
+			}
+		}
+
+		return builder.build();
+	}
+
+}
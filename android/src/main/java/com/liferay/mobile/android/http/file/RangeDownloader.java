@@ -0,0 +1,483 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.Method;
+import com.liferay.mobile.android.http.Request;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.http.Status;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.util.NamedThreadFactory;
+import com.liferay.mobile.android.util.Validator;
+
+import com.squareup.okhttp.internal.Util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okio.BufferedSource;
+
+/**
+ * @author Bruno Farache
+ */
+public class RangeDownloader {
+
+	public static final int DEFAULT_SEGMENTS = 4;
+
+	public static final String MANIFEST_EXTENSION = ".download";
+
+	public RangeDownloader(Session session, String url, File file) {
+		this(session, url, file, DEFAULT_SEGMENTS);
+	}
+
+	public RangeDownloader(
+		Session session, String url, File file, int segments) {
+
+		_session = session;
+		_url = url;
+		_file = file;
+		_segments = segments;
+		_manifestFile = new File(file.getPath() + MANIFEST_EXTENSION);
+	}
+
+	public void download(FileProgressCallback callback) throws Exception {
+		Response response = head();
+
+		String length = response.getHeader(Headers.CONTENT_LENGTH);
+		String ranges = response.getHeader(Headers.ACCEPT_RANGES);
+
+		if ((response.getStatusCode() != Status.OK) ||
+			Validator.isNull(length) || !"bytes".equals(ranges)) {
+
+			HttpUtil.download(_session, _url, _file, callback);
+
+			return;
+		}
+
+		String validator = response.getHeader(Headers.ETAG);
+
+		if (validator == null) {
+			validator = response.getHeader(Headers.LAST_MODIFIED);
+		}
+
+		List<Segment> segments = getSegments(
+			Long.parseLong(length), validator);
+
+		RandomAccessFile raf = new RandomAccessFile(_file, "rw");
+
+		try {
+			raf.setLength(Long.parseLong(length));
+
+			download(raf.getChannel(), segments, callback);
+		}
+		finally {
+			raf.close();
+		}
+
+		if (!isCancelled(callback)) {
+			_manifestFile.delete();
+		}
+	}
+
+	public File getFile() {
+		return _file;
+	}
+
+	public long getLength() {
+		return _length;
+	}
+
+	public File getManifestFile() {
+		return _manifestFile;
+	}
+
+	public int getSegments() {
+		return _segments;
+	}
+
+	public Object getTag() {
+		return _tag;
+	}
+
+	protected void download(
+			final FileChannel channel, List<Segment> segments,
+			final FileProgressCallback callback)
+		throws Exception {
+
+		long downloaded = 0;
+
+		for (Segment segment : segments) {
+			downloaded += segment.position - segment.start;
+		}
+
+		if (callback != null) {
+			if (callback.getLength() < 0) {
+				callback.setLength(_length);
+			}
+
+			if (downloaded > 0) {
+				callback.restore(downloaded);
+			}
+		}
+
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+
+		for (final Segment segment : segments) {
+			if (segment.isDone()) {
+				continue;
+			}
+
+			futures.add(
+				_executor.submit(
+					new Runnable() {
+
+						@Override
+						public void run() {
+							try {
+								download(channel, segment, callback);
+							}
+							catch (Exception e) {
+								throw new SegmentException(e);
+							}
+						}
+
+					}));
+		}
+
+		Throwable throwable = null;
+
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException ee) {
+				if (throwable == null) {
+					throwable = ee.getCause();
+
+					if ((throwable instanceof SegmentException) &&
+						(throwable.getCause() != null)) {
+
+						throwable = throwable.getCause();
+					}
+
+					HttpUtil.cancel(_tag);
+				}
+			}
+		}
+
+		saveManifest(segments);
+
+		if (callback != null) {
+			callback.flush();
+		}
+
+		if (throwable instanceof Error) {
+			throw (Error)throwable;
+		}
+
+		if (throwable != null) {
+			throw (Exception)throwable;
+		}
+	}
+
+	protected void download(
+			FileChannel channel, Segment segment,
+			FileProgressCallback callback)
+		throws Exception {
+
+		Map<String, String> headers = new HashMap<String, String>(
+			_session.getHeaders());
+
+		headers.put(
+			Headers.RANGE, "bytes=" + segment.position + "-" + segment.end);
+
+		if ((_validator != null) && !_validator.startsWith("W/")) {
+			headers.put(Headers.IF_RANGE, _validator);
+		}
+
+		Request request = new Request(
+			_session.getAuthentication(), Method.GET, headers, _url, null,
+			_session.getConnectionTimeout(), null, _tag);
+
+		Response response = HttpUtil.send(request);
+
+		BufferedSource source = response.getBodyAsSource();
+
+		try {
+			if (response.getStatusCode() != Status.PARTIAL_CONTENT) {
+				throw new IOException(
+					"Server ignored range request, response code: " +
+						response.getStatusCode());
+			}
+
+			byte[] bytes = new byte[_BUFFER_SIZE];
+			long saved = segment.position;
+
+			while (!segment.isDone() && !isCancelled(callback)) {
+				int read = source.read(bytes);
+
+				if (read == -1) {
+					throw new IOException(
+						"Unexpected end of range at " + segment.position);
+				}
+
+				read = (int)Math.min(read, segment.end + 1 - segment.position);
+
+				ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, read);
+
+				while (buffer.hasRemaining()) {
+					segment.position += channel.write(
+						buffer, segment.position);
+				}
+
+				if (callback != null) {
+					synchronized (callback) {
+						callback.increment(read);
+					}
+				}
+
+				if ((segment.position - saved) >= _MANIFEST_INTERVAL) {
+					saved = segment.position;
+
+					saveManifest(null);
+				}
+			}
+
+			if (isCancelled(callback)) {
+				HttpUtil.cancel(_tag);
+			}
+		}
+		finally {
+			Util.closeQuietly(source);
+		}
+	}
+
+	protected List<Segment> getSegments(long length, String validator)
+		throws IOException {
+
+		List<Segment> segments = loadManifest(length, validator);
+
+		if (segments != null) {
+			return segments;
+		}
+
+		segments = new ArrayList<Segment>();
+
+		long count = Math.max(1, Math.min(_segments, length / _BUFFER_SIZE));
+		long size = length / count;
+
+		for (int i = 0; i < count; i++) {
+			long start = i * size;
+			long end = start + size - 1;
+
+			if (i == (count - 1)) {
+				end = length - 1;
+			}
+
+			segments.add(new Segment(start, end, start));
+		}
+
+		_length = length;
+		_validator = validator;
+		_currentSegments = segments;
+
+		saveManifest(segments);
+
+		return segments;
+	}
+
+	protected Response head() throws Exception {
+		Request request = new Request(
+			_session.getAuthentication(), Method.HEAD, _session.getHeaders(),
+			_url, null, _session.getConnectionTimeout(), null, _tag);
+
+		Response response = HttpUtil.send(request);
+
+		// Only the headers are read, so release the connection right away
+
+		response.close();
+
+		return response;
+	}
+
+	protected boolean isCancelled(FileProgressCallback callback) {
+		return FileProgressUtil.isCancelled(callback);
+	}
+
+	protected List<Segment> loadManifest(long length, String validator)
+		throws IOException {
+
+		if (!_manifestFile.exists() || !_file.exists() ||
+			(_file.length() != length)) {
+
+			return null;
+		}
+
+		Properties properties = new Properties();
+
+		InputStream is = new FileInputStream(_manifestFile);
+
+		try {
+			properties.load(is);
+		}
+		finally {
+			is.close();
+		}
+
+		if (!_url.equals(properties.getProperty("url")) ||
+			!String.valueOf(length).equals(properties.getProperty("length"))) {
+
+			return null;
+		}
+
+		// Without a matching validator the file may have changed since the
+		// manifest was written, so it is downloaded again
+
+		String savedValidator = properties.getProperty("validator");
+
+		if ((validator == null) || !validator.equals(savedValidator)) {
+			return null;
+		}
+
+		List<Segment> segments = new ArrayList<Segment>();
+
+		try {
+			int count = Integer.parseInt(properties.getProperty("segments"));
+
+			for (int i = 0; i < count; i++) {
+				String[] values = properties.getProperty(
+					"segment." + i).split(",");
+
+				segments.add(
+					new Segment(
+						Long.parseLong(values[0]), Long.parseLong(values[1]),
+						Long.parseLong(values[2])));
+			}
+		}
+		catch (RuntimeException re) {
+			return null;
+		}
+
+		_length = length;
+		_validator = validator;
+		_currentSegments = segments;
+
+		return segments;
+	}
+
+	protected synchronized void saveManifest(List<Segment> segments)
+		throws IOException {
+
+		if (segments == null) {
+			segments = _currentSegments;
+		}
+
+		Properties properties = new Properties();
+
+		properties.setProperty("url", _url);
+		properties.setProperty("length", String.valueOf(_length));
+
+		if (_validator != null) {
+			properties.setProperty("validator", _validator);
+		}
+
+		properties.setProperty("segments", String.valueOf(segments.size()));
+
+		for (int i = 0; i < segments.size(); i++) {
+			Segment segment = segments.get(i);
+
+			properties.setProperty(
+				"segment." + i,
+				segment.start + "," + segment.end + "," + segment.position);
+		}
+
+		OutputStream os = new FileOutputStream(_manifestFile);
+
+		try {
+			properties.store(os, null);
+		}
+		finally {
+			os.close();
+		}
+	}
+
+	private static final int _BUFFER_SIZE = 64 * 1024;
+
+	private static final long _MANIFEST_INTERVAL = 1024 * 1024;
+
+	private static final ExecutorService _executor =
+		Executors.newCachedThreadPool(
+			new NamedThreadFactory("Liferay-RangeDownloader"));
+
+	private List<Segment> _currentSegments;
+	private final File _file;
+	private volatile long _length = -1;
+	private final File _manifestFile;
+	private final int _segments;
+	private final Session _session;
+	private final Object _tag = new Object();
+	private final String _url;
+	private String _validator;
+
+	private static class Segment {
+
+		public Segment(long start, long end, long position) {
+			this.start = start;
+			this.end = end;
+			this.position = position;
+		}
+
+		public boolean isDone() {
+			return position > end;
+		}
+
+		protected final long end;
+		protected volatile long position;
+		protected final long start;
+
+	}
+
+	private static class SegmentException extends RuntimeException {
+
+		public SegmentException(Exception cause) {
+			super(cause);
+		}
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+
+import java.io.File;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class Transfer {
+
+	public enum State {
+
+		CANCELLED, COMPLETED, FAILED, PAUSED, QUEUED, RUNNING
+
+	}
+
+	public enum Type {
+
+		DOWNLOAD, UPLOAD
+
+	}
+
+	public Exception getException() {
+		return exception;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public String getHost() {
+		return host;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getLength() {
+		RangeDownloader downloader = this.downloader;
+
+		if ((downloader != null) && (downloader.getLength() >= 0)) {
+			return downloader.getLength();
+		}
+
+		return length;
+	}
+
+	public JSONArray getResult() {
+		return result;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	public long getTransferred() {
+		return transferred;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getURL() {
+		return url;
+	}
+
+	public boolean isFinished() {
+		return (state == State.CANCELLED) || (state == State.COMPLETED);
+	}
+
+	protected Transfer(
+		String id, Type type, String url, String host, File file) {
+
+		this.id = id;
+		this.type = type;
+		this.url = url;
+		this.host = host;
+		this.file = file;
+	}
+
+	protected boolean active;
+	protected FileProgressCallback callback;
+	protected JSONObject command;
+	protected volatile RangeDownloader downloader;
+	protected volatile Exception exception;
+	protected final File file;
+	protected String fileName;
+	protected final String host;
+	protected final String id;
+	protected volatile long length = -1;
+	protected String mimeType;
+	protected String parameter;
+	protected volatile JSONArray result;
+	protected volatile State state = State.QUEUED;
+	protected volatile long transferred;
+	protected final Type type;
+	protected final String url;
+
+}
@@ -0,0 +1,659 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.service.SessionImpl;
+import com.liferay.mobile.android.util.NamedThreadFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.URL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class TransferManager {
+
+	public static final int DEFAULT_MAX_TRANSFERS = 4;
+
+	public static final int DEFAULT_MAX_TRANSFERS_PER_HOST = 2;
+
+	public TransferManager(Session session, File directory) throws Exception {
+		this(
+			session, directory, DEFAULT_MAX_TRANSFERS,
+			DEFAULT_MAX_TRANSFERS_PER_HOST);
+	}
+
+	public TransferManager(
+			Session session, File directory, int maxTransfers,
+			int maxTransfersPerHost)
+		throws Exception {
+
+		_session = new SessionImpl(session);
+
+		_session.setCallback(null);
+		_session.setHeaders(session.getHeaders());
+
+		_directory = directory;
+		_maxTransfers = maxTransfers;
+		_maxTransfersPerHost = maxTransfersPerHost;
+
+		if (_directory != null) {
+			_directory.mkdirs();
+
+			load();
+		}
+	}
+
+	public synchronized boolean cancel(String id) {
+		Transfer transfer = _transfers.get(id);
+
+		if ((transfer == null) || transfer.isFinished()) {
+			return false;
+		}
+
+		Transfer.State state = transfer.state;
+
+		transfer.state = Transfer.State.CANCELLED;
+
+		if (state == Transfer.State.RUNNING) {
+			interrupt(transfer);
+		}
+		else {
+			cleanUp(transfer);
+		}
+
+		return true;
+	}
+
+	public Transfer download(String url, File file) throws Exception {
+		String host = new URL(url).getHost();
+
+		Transfer transfer = new Transfer(
+			UUID.randomUUID().toString(), Transfer.Type.DOWNLOAD, url, host,
+			file);
+
+		return add(transfer);
+	}
+
+	public synchronized int getActiveCount() {
+		int count = 0;
+
+		for (Transfer transfer : _transfers.values()) {
+			if (transfer.state == Transfer.State.RUNNING) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	public int getMaxTransfers() {
+		return _maxTransfers;
+	}
+
+	public int getMaxTransfersPerHost() {
+		return _maxTransfersPerHost;
+	}
+
+	public synchronized double getProgress() {
+		long length = 0;
+		long transferred = 0;
+
+		for (Transfer transfer : _transfers.values()) {
+			if (transfer.state == Transfer.State.CANCELLED) {
+				continue;
+			}
+
+			long transferLength = transfer.getLength();
+
+			if (transferLength < 0) {
+				continue;
+			}
+
+			length += transferLength;
+			transferred += Math.min(transfer.transferred, transferLength);
+		}
+
+		if (length == 0) {
+			return 0;
+		}
+
+		return (double)transferred / length;
+	}
+
+	public double getThroughput() {
+		long elapsed;
+
+		synchronized (this) {
+			elapsed = _activeTime;
+
+			if (_activeSince > 0) {
+				elapsed += System.currentTimeMillis() - _activeSince;
+			}
+		}
+
+		if (elapsed == 0) {
+			return 0;
+		}
+
+		return _transferredBytes.get() * 1000.0 / elapsed;
+	}
+
+	public synchronized Transfer getTransfer(String id) {
+		return _transfers.get(id);
+	}
+
+	public long getTransferredBytes() {
+		return _transferredBytes.get();
+	}
+
+	public synchronized List<Transfer> getTransfers() {
+		return new ArrayList<Transfer>(_transfers.values());
+	}
+
+	/**
+	 * Downloads resume from the bytes already on disk, but a paused upload
+	 * is sent again from byte 0 when it is resumed.
+	 */
+	public synchronized boolean pause(String id) {
+		Transfer transfer = _transfers.get(id);
+
+		if ((transfer == null) ||
+			((transfer.state != Transfer.State.QUEUED) &&
+			 (transfer.state != Transfer.State.RUNNING))) {
+
+			return false;
+		}
+
+		Transfer.State state = transfer.state;
+
+		transfer.state = Transfer.State.PAUSED;
+
+		if (state == Transfer.State.RUNNING) {
+			interrupt(transfer);
+		}
+		else {
+			save(transfer);
+		}
+
+		return true;
+	}
+
+	public synchronized void remove(String id) {
+		Transfer transfer = _transfers.get(id);
+
+		if ((transfer == null) || (transfer.state == Transfer.State.RUNNING)) {
+			return;
+		}
+
+		_transfers.remove(id);
+
+		delete(transfer);
+	}
+
+	public synchronized boolean resume(String id) {
+		Transfer transfer = _transfers.get(id);
+
+		if ((transfer == null) ||
+			((transfer.state != Transfer.State.FAILED) &&
+			 (transfer.state != Transfer.State.PAUSED))) {
+
+			return false;
+		}
+
+		transfer.exception = null;
+		transfer.state = Transfer.State.QUEUED;
+
+		save(transfer);
+		schedule();
+
+		return true;
+	}
+
+	public Transfer upload(JSONObject command) throws Exception {
+		String path = (String)command.keys().next();
+		JSONObject params = command.getJSONObject(path);
+
+		String parameter = null;
+		UploadData data = null;
+
+		Iterator<?> it = params.keys();
+
+		while (it.hasNext()) {
+			String key = (String)it.next();
+			Object value = params.get(key);
+
+			if (value instanceof UploadData) {
+				parameter = key;
+				data = (UploadData)value;
+			}
+		}
+
+		if ((data == null) || (data.getFile() == null)) {
+			throw new IllegalArgumentException(
+				"Transfers require File backed UploadData");
+		}
+
+		String server = _session.getServer();
+
+		Transfer transfer = new Transfer(
+			UUID.randomUUID().toString(), Transfer.Type.UPLOAD, server,
+			new URL(server).getHost(), data.getFile());
+
+		JSONObject storedParams = new JSONObject(params.toString());
+
+		storedParams.put(parameter, JSONObject.NULL);
+
+		transfer.command = new JSONObject();
+		transfer.command.put(path, storedParams);
+
+		transfer.fileName = data.getFileName();
+		transfer.length = data.getLength();
+		transfer.mimeType = data.getMimeType();
+		transfer.parameter = parameter;
+
+		return add(transfer);
+	}
+
+	protected synchronized Transfer add(Transfer transfer) {
+		_transfers.put(transfer.id, transfer);
+
+		save(transfer);
+		schedule();
+
+		return transfer;
+	}
+
+	protected void cleanUp(Transfer transfer) {
+		delete(transfer);
+
+		if (transfer.type == Transfer.Type.DOWNLOAD) {
+			new File(
+				transfer.file.getPath() +
+					RangeDownloader.MANIFEST_EXTENSION).delete();
+
+			transfer.file.delete();
+		}
+	}
+
+	protected void delete(Transfer transfer) {
+		if (_directory != null) {
+			getFile(transfer.id).delete();
+		}
+	}
+
+	protected void execute(Transfer transfer) throws Exception {
+		if (transfer.type == Transfer.Type.DOWNLOAD) {
+			RangeDownloader downloader = new RangeDownloader(
+				_session, transfer.url, transfer.file);
+
+			transfer.downloader = downloader;
+
+			try {
+				downloader.download(transfer.callback);
+			}
+			finally {
+				transfer.length = downloader.getLength();
+				transfer.downloader = null;
+			}
+		}
+		else {
+			JSONObject command = new JSONObject(transfer.command.toString());
+
+			String path = (String)command.keys().next();
+
+			UploadData data = new UploadData(
+				transfer.file, transfer.mimeType, transfer.fileName,
+				transfer.callback);
+
+			command.getJSONObject(path).put(transfer.parameter, data);
+
+			transfer.result = HttpUtil.upload(_session, command);
+		}
+	}
+
+	protected synchronized void finish(Transfer transfer, Exception e) {
+		_running--;
+
+		if (_running == 0) {
+			_activeTime += System.currentTimeMillis() - _activeSince;
+			_activeSince = 0;
+		}
+
+		transfer.active = false;
+
+		if (transfer.state == Transfer.State.CANCELLED) {
+			cleanUp(transfer);
+		}
+		else if (transfer.state == Transfer.State.PAUSED) {
+			save(transfer);
+		}
+		else if (transfer.state == Transfer.State.RUNNING) {
+			if (e != null) {
+				transfer.exception = e;
+				transfer.state = Transfer.State.FAILED;
+
+				save(transfer);
+			}
+			else {
+				transfer.state = Transfer.State.COMPLETED;
+
+				delete(transfer);
+			}
+		}
+
+		schedule();
+	}
+
+	protected File getFile(String id) {
+		return new File(_directory, id + _EXTENSION);
+	}
+
+	protected void interrupt(Transfer transfer) {
+		FileProgressCallback callback = transfer.callback;
+
+		if (callback != null) {
+			callback.setCancelled(true);
+		}
+
+		RangeDownloader downloader = transfer.downloader;
+
+		if (downloader != null) {
+			HttpUtil.cancel(downloader.getTag());
+		}
+	}
+
+	protected void load() throws Exception {
+		File[] files = _directory.listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		for (File file : files) {
+			if (!file.getName().endsWith(_EXTENSION)) {
+				continue;
+			}
+
+			Transfer transfer = read(file);
+
+			if (transfer == null) {
+				file.delete();
+
+				continue;
+			}
+
+			_transfers.put(transfer.id, transfer);
+		}
+
+		synchronized (this) {
+			schedule();
+		}
+	}
+
+	protected Transfer read(File file) throws IOException {
+		Properties properties = new Properties();
+
+		InputStream is = new FileInputStream(file);
+
+		try {
+			properties.load(is);
+		}
+		catch (IllegalArgumentException iae) {
+			return null;
+		}
+		finally {
+			is.close();
+		}
+
+		String id = properties.getProperty("id");
+		String type = properties.getProperty("type");
+		String url = properties.getProperty("url");
+		String host = properties.getProperty("host");
+		String path = properties.getProperty("file");
+		String state = properties.getProperty("state");
+
+		if ((id == null) || (type == null) || (url == null) ||
+			(host == null) || (path == null) || (state == null)) {
+
+			return null;
+		}
+
+		try {
+			Transfer transfer = new Transfer(
+				id, Transfer.Type.valueOf(type), url, host, new File(path));
+
+			transfer.state = Transfer.State.valueOf(state);
+
+			if (transfer.state == Transfer.State.RUNNING) {
+				transfer.state = Transfer.State.QUEUED;
+			}
+
+			if (transfer.type == Transfer.Type.UPLOAD) {
+				String command = properties.getProperty("command");
+
+				transfer.parameter = properties.getProperty("parameter");
+
+				if ((command == null) || (transfer.parameter == null)) {
+					return null;
+				}
+
+				transfer.command = new JSONObject(command);
+				transfer.fileName = properties.getProperty("fileName");
+				transfer.length = transfer.file.length();
+				transfer.mimeType = properties.getProperty("mimeType");
+			}
+
+			return transfer;
+		}
+		catch (IllegalArgumentException iae) {
+			return null;
+		}
+		catch (JSONException je) {
+			return null;
+		}
+	}
+
+	protected void save(Transfer transfer) {
+		if (_directory == null) {
+			return;
+		}
+
+		Properties properties = new Properties();
+
+		properties.setProperty("id", transfer.id);
+		properties.setProperty("type", transfer.type.name());
+		properties.setProperty("url", transfer.url);
+		properties.setProperty("host", transfer.host);
+		properties.setProperty("file", transfer.file.getPath());
+		properties.setProperty("state", transfer.state.name());
+
+		if (transfer.type == Transfer.Type.UPLOAD) {
+			properties.setProperty("command", transfer.command.toString());
+			properties.setProperty("parameter", transfer.parameter);
+
+			setProperty(properties, "fileName", transfer.fileName);
+			setProperty(properties, "mimeType", transfer.mimeType);
+		}
+
+		try {
+			OutputStream os = new FileOutputStream(getFile(transfer.id));
+
+			try {
+				properties.store(os, null);
+			}
+			finally {
+				os.close();
+			}
+		}
+		catch (IOException ioe) {
+			transfer.exception = ioe;
+		}
+	}
+
+	protected void schedule() {
+		Map<String, Integer> hosts = new HashMap<String, Integer>();
+
+		for (Transfer transfer : _transfers.values()) {
+			if (transfer.state == Transfer.State.RUNNING) {
+				increment(hosts, transfer.host);
+			}
+		}
+
+		for (final Transfer transfer : _transfers.values()) {
+			if (_running >= _maxTransfers) {
+				return;
+			}
+
+			if ((transfer.state != Transfer.State.QUEUED) || transfer.active) {
+				continue;
+			}
+
+			Integer count = hosts.get(transfer.host);
+
+			if ((count != null) && (count >= _maxTransfersPerHost)) {
+				continue;
+			}
+
+			increment(hosts, transfer.host);
+
+			if (_running == 0) {
+				_activeSince = System.currentTimeMillis();
+			}
+
+			_running++;
+
+			transfer.active = true;
+			transfer.callback = new TransferCallback(transfer);
+			transfer.state = Transfer.State.RUNNING;
+			transfer.transferred = 0;
+
+			save(transfer);
+
+			_executor.execute(
+				new Runnable() {
+
+					@Override
+					public void run() {
+						Exception exception = null;
+
+						try {
+							execute(transfer);
+						}
+						catch (Exception e) {
+							exception = e;
+						}
+
+						finish(transfer, exception);
+					}
+
+				});
+		}
+	}
+
+	private static void increment(Map<String, Integer> hosts, String host) {
+		Integer count = hosts.get(host);
+
+		if (count == null) {
+			count = 0;
+		}
+
+		hosts.put(host, count + 1);
+	}
+
+	private static void setProperty(
+		Properties properties, String key, String value) {
+
+		if (value != null) {
+			properties.setProperty(key, value);
+		}
+	}
+
+	private static final String _EXTENSION = ".transfer";
+
+	private static final ExecutorService _executor =
+		Executors.newCachedThreadPool(
+			new NamedThreadFactory("Liferay-Transfer"));
+
+	private long _activeSince;
+	private long _activeTime;
+	private final File _directory;
+	private final int _maxTransfers;
+	private final int _maxTransfersPerHost;
+	private int _running;
+	private final Session _session;
+	private final Map<String, Transfer> _transfers =
+		new LinkedHashMap<String, Transfer>();
+	private final AtomicLong _transferredBytes = new AtomicLong();
+
+	private class TransferCallback extends FileProgressCallback {
+
+		public TransferCallback(Transfer transfer) {
+			_transfer = transfer;
+		}
+
+		@Override
+		public synchronized void increment(int bytesLength) {
+			total = total + bytesLength;
+
+			_transfer.transferred += bytesLength;
+			_transferredBytes.addAndGet(bytesLength);
+		}
+
+		@Override
+		public void onProgress(int totalBytes) {
+		}
+
+		@Override
+		public synchronized void restore(long bytesLength) {
+
+			// Bytes resumed from disk count toward the transfer's progress but
+			// were not read from the network, so they are left out of the
+			// throughput
+
+			total = total + (int)Math.min(bytesLength, Integer.MAX_VALUE);
+
+			_transfer.transferred += bytesLength;
+		}
+
+		private final Transfer _transfer;
+
+	}
+
+}
@@ -16,6 +16,7 @@ package com.liferay.mobile.android.http.file;
 
 import com.liferay.mobile.android.callback.file.FileProgressCallback;
 
+import java.io.File;
 import java.io.InputStream;
 
 /**
@@ -24,6 +25,21 @@ import java.io.InputStream;
  */
 public class UploadData {
 
+	public UploadData(
+		File file, String mimeType, FileProgressCallback callback) {
+
+		this(file, mimeType, file.getName(), callback);
+	}
+
+	public UploadData(
+		File file, String mimeType, String fileName,
+		FileProgressCallback callback) {
+
+		this((InputStream)null, mimeType, fileName, callback);
+
+		this.file = file;
+	}
+
 	public UploadData(
 		InputStream is, String fileName, FileProgressCallback callback) {
 
@@ -49,6 +65,10 @@ public class UploadData {
 		return callback;
 	}
 
+	public File getFile() {
+		return file;
+	}
+
 	public String getFileName() {
 		return fileName;
 	}
@@ -57,11 +77,20 @@ public class UploadData {
 		return is;
 	}
 
+	public long getLength() {
+		if (file == null) {
+			return -1;
+		}
+
+		return file.length();
+	}
+
 	public String getMimeType() {
 		return mimeType;
 	}
 
 	protected FileProgressCallback callback;
+	protected File file;
 	protected String fileName;
 	protected InputStream is;
 	protected String mimeType;
@@ -14,8 +14,11 @@
 
 package com.liferay.mobile.android.service;
 
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.util.JSONUtil;
 import com.liferay.mobile.android.util.Validator;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -40,6 +43,18 @@ public class BaseService {
 		return session;
 	}
 
+	public <T> Promise<T> invokeAsync(JSONObject command, final Class<T> type) {
+		return session.invokeAsync(command).thenApply(
+			new Promise.Function<JSONArray, T>() {
+
+				@Override
+				public T apply(JSONArray result) throws Exception {
+					return getResult(result, type);
+				}
+
+			});
+	}
+
 	public void mangleWrapper(
 			JSONObject params, String name, String className,
 			JSONObjectWrapper wrapper)
@@ -82,6 +97,12 @@ public class BaseService {
 		return sb.toString();
 	}
 
+	protected <T> T getResult(JSONArray result, Class<T> type)
+		throws JSONException {
+
+		return JSONUtil.getValue(result, 0, type);
+	}
+
 	protected Session session;
 
 	private static final String _SERVICE_CONTEXT_62 =
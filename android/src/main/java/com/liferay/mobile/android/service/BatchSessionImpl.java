@@ -15,10 +15,21 @@
 package com.liferay.mobile.android.service;
 
 import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.callback.BaseCallback;
 import com.liferay.mobile.android.callback.BatchCallback;
+import com.liferay.mobile.android.callback.Promise;
 import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.util.NamedThreadFactory;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -57,17 +68,48 @@ public class BatchSessionImpl extends SessionImpl {
 		super(server, callback);
 	}
 
+	public int getChunkSize() {
+		return _chunkSize;
+	}
+
+	public int getMaxChunkBytes() {
+		return _maxChunkBytes;
+	}
+
+	public int getParallelism() {
+		return _parallelism;
+	}
+
 	public JSONArray invoke() throws Exception {
 		if (_commands.size() == 0) {
 			return null;
 		}
 
+		List<JSONArray> chunks;
+
 		try {
-			return HttpUtil.post(this, new JSONArray(_commands));
+			chunks = getChunks(_commands);
 		}
 		finally {
 			_commands = new ArrayList<JSONObject>();
 		}
+
+		if (chunks.size() == 1) {
+			return HttpUtil.post(this, chunks.get(0));
+		}
+
+		if (callback == null) {
+			return invoke(chunks);
+		}
+
+		if (!(callback instanceof BaseCallback)) {
+			throw new IllegalArgumentException(
+				"Chunked batches require a BaseCallback");
+		}
+
+		invokeInBackground((BaseCallback<?>)callback, chunks);
+
+		return null;
 	}
 
 	@Override
@@ -77,15 +119,207 @@ public class BatchSessionImpl extends SessionImpl {
 		return null;
 	}
 
+	@Override
+	public Promise<JSONArray> invokeAsync(JSONObject command) {
+		return Promise.failed(
+			new IllegalStateException("Can't invoke batched requests async"));
+	}
+
 	public void setCallback(BatchCallback callback) {
 		this.callback = callback;
 	}
 
+	public void setChunkSize(int chunkSize) {
+		_chunkSize = chunkSize;
+	}
+
+	public void setMaxChunkBytes(int maxChunkBytes) {
+		_maxChunkBytes = maxChunkBytes;
+	}
+
+	public void setParallelism(int parallelism) {
+		_parallelism = parallelism;
+	}
+
 	@Override
 	public JSONArray upload(JSONObject command) throws Exception {
 		throw new IllegalStateException("Can't batch upload requests");
 	}
 
+	protected static int getUTF8Length(String s) {
+		int length = 0;
+
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+
+			if (c < 0x80) {
+				length++;
+			}
+			else if ((c < 0x800) || Character.isHighSurrogate(c) ||
+					 Character.isLowSurrogate(c)) {
+
+				length += 2;
+			}
+			else {
+				length += 3;
+			}
+		}
+
+		return length;
+	}
+
+	protected List<JSONArray> getChunks(List<JSONObject> commands) {
+		List<JSONArray> chunks = new ArrayList<JSONArray>();
+
+		if ((_chunkSize <= 0) && (_maxChunkBytes <= 0)) {
+			chunks.add(new JSONArray(commands));
+
+			return chunks;
+		}
+
+		JSONArray chunk = new JSONArray();
+		int chunkBytes = 2;
+
+		for (JSONObject command : commands) {
+			int commandBytes = 0;
+
+			if (_maxChunkBytes > 0) {
+				commandBytes = getUTF8Length(command.toString()) + 1;
+			}
+
+			boolean full = false;
+
+			if ((_chunkSize > 0) && (chunk.length() >= _chunkSize)) {
+				full = true;
+			}
+
+			if ((_maxChunkBytes > 0) &&
+				((chunkBytes + commandBytes) > _maxChunkBytes)) {
+
+				full = true;
+			}
+
+			if (full && (chunk.length() > 0)) {
+				chunks.add(chunk);
+
+				chunk = new JSONArray();
+				chunkBytes = 2;
+			}
+
+			chunk.put(command);
+			chunkBytes += commandBytes;
+		}
+
+		chunks.add(chunk);
+
+		return chunks;
+	}
+
+	protected JSONArray invoke(final List<JSONArray> chunks) throws Exception {
+		final JSONArray[] results = new JSONArray[chunks.size()];
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicBoolean failed = new AtomicBoolean();
+
+		Callable<Void> worker = new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				while (!failed.get()) {
+					int i = next.getAndIncrement();
+
+					if (i >= chunks.size()) {
+						break;
+					}
+
+					try {
+						results[i] = HttpUtil.post(
+							BatchSessionImpl.this, chunks.get(i), null);
+					}
+					catch (Exception e) {
+						failed.set(true);
+
+						throw e;
+					}
+				}
+
+				return null;
+			}
+
+		};
+
+		int workers = Math.min(Math.max(_parallelism, 1), chunks.size());
+
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+		for (int i = 1; i < workers; i++) {
+			futures.add(_executor.submit(worker));
+		}
+
+		Exception exception = null;
+
+		try {
+			worker.call();
+		}
+		catch (Exception e) {
+			exception = e;
+		}
+
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException ee) {
+				Throwable cause = ee.getCause();
+
+				if (cause instanceof Error) {
+					throw (Error)cause;
+				}
+
+				if (exception == null) {
+					exception = (Exception)cause;
+				}
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+
+		JSONArray merged = new JSONArray();
+
+		for (JSONArray result : results) {
+			for (int i = 0; i < result.length(); i++) {
+				merged.put(result.get(i));
+			}
+		}
+
+		return merged;
+	}
+
+	protected <T> void invokeInBackground(
+		final BaseCallback<T> callback, final List<JSONArray> chunks) {
+
+		_executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					callback.doSuccess(callback.inBackground(invoke(chunks)));
+				}
+				catch (Exception e) {
+					callback.doFailure(e);
+				}
+			}
+
+		});
+	}
+
+	private static final ExecutorService _executor =
+		Executors.newCachedThreadPool(new NamedThreadFactory("Liferay-Batch"));
+
+	private int _chunkSize;
 	private ArrayList<JSONObject> _commands = new ArrayList<JSONObject>();
+	private int _maxChunkBytes;
+	private int _parallelism = 1;
 
 }
\ No newline at end of file
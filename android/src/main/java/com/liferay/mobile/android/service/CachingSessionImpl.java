@@ -0,0 +1,423 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.service;
+
+import com.liferay.mobile.android.callback.BaseCallback;
+import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.callback.CallbackListener;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.util.CommandUtil;
+import com.liferay.mobile.android.util.JSONUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class CachingSessionImpl extends SessionImpl {
+
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	public static final long DEFAULT_TTL = 60 * 1000;
+
+	public CachingSessionImpl(Session session) {
+		this(session, DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+	}
+
+	public CachingSessionImpl(Session session, int maxEntries, long ttl) {
+		super(session);
+
+		_maxEntries = maxEntries;
+		_ttl = ttl;
+	}
+
+	public synchronized void clear() {
+		_entries.clear();
+		_generation++;
+	}
+
+	public long getEvictions() {
+		return _evictions.get();
+	}
+
+	public double getHitRatio() {
+		long hits = _hits.get();
+		long total = hits + _misses.get();
+
+		if (total == 0) {
+			return 0;
+		}
+
+		return (double)hits / total;
+	}
+
+	public long getHits() {
+		return _hits.get();
+	}
+
+	public long getInvalidations() {
+		return _invalidations.get();
+	}
+
+	public int getMaxEntries() {
+		return _maxEntries;
+	}
+
+	public long getMisses() {
+		return _misses.get();
+	}
+
+	public synchronized int getSize() {
+		return _entries.size();
+	}
+
+	public long getTTL() {
+		return _ttl;
+	}
+
+	public synchronized long getTTL(String path) {
+		Long ttl = _ttls.get(path);
+
+		if (ttl == null) {
+			return _ttl;
+		}
+
+		return ttl;
+	}
+
+	public synchronized int invalidate(String pathPrefix) {
+		int count = 0;
+
+		Iterator<CacheEntry> it = _entries.values().iterator();
+
+		while (it.hasNext()) {
+			CacheEntry entry = it.next();
+
+			if (entry.path.startsWith(pathPrefix)) {
+				it.remove();
+				count++;
+			}
+		}
+
+		_generation++;
+		_invalidations.addAndGet(count);
+
+		return count;
+	}
+
+	@Override
+	public JSONArray invoke(JSONObject command) throws Exception {
+		List<String> families = getMutationFamilies(command);
+
+		if (!families.isEmpty()) {
+			return invokeMutation(command, families);
+		}
+
+		if (!isCacheable(command)) {
+			return super.invoke(command);
+		}
+
+		Callback callback = getCallback();
+
+		if (callback != null) {
+			if (!(callback instanceof BaseCallback)) {
+				return super.invoke(command);
+			}
+
+			invokeAsync(command).addListener(
+				CallbackListener.create((BaseCallback<?>)callback));
+
+			return null;
+		}
+
+		String path = getPath(command);
+		String key = JSONUtil.canonicalize(command);
+
+		JSONArray result = get(key);
+
+		if (result != null) {
+			return result;
+		}
+
+		long generation = getGeneration();
+
+		result = super.invoke(command);
+
+		put(key, path, result, generation);
+
+		return result;
+	}
+
+	@Override
+	public Promise<JSONArray> invokeAsync(JSONObject command) {
+		final List<String> families;
+
+		try {
+			families = getMutationFamilies(command);
+		}
+		catch (JSONException je) {
+			return Promise.failed(je);
+		}
+
+		if (!families.isEmpty()) {
+			invalidate(families);
+
+			Promise<JSONArray> promise = super.invokeAsync(command);
+
+			promise.addListener(
+				new Promise.Listener<JSONArray>() {
+
+					@Override
+					public void onFailure(Exception exception) {
+						invalidate(families);
+					}
+
+					@Override
+					public void onSuccess(JSONArray result) {
+						invalidate(families);
+					}
+
+				});
+
+			return promise;
+		}
+
+		final String path;
+		final String key;
+		JSONArray result;
+
+		try {
+			if (!isCacheable(command)) {
+				return super.invokeAsync(command);
+			}
+
+			path = getPath(command);
+			key = JSONUtil.canonicalize(command);
+			result = get(key);
+		}
+		catch (JSONException je) {
+			return Promise.failed(je);
+		}
+
+		if (result != null) {
+			Promise<JSONArray> promise = new Promise<JSONArray>();
+
+			promise.complete(result);
+
+			return promise;
+		}
+
+		final long generation = getGeneration();
+
+		return super.invokeAsync(command).thenApply(
+			new Promise.Function<JSONArray, JSONArray>() {
+
+				@Override
+				public JSONArray apply(JSONArray result) throws Exception {
+					put(key, path, result, generation);
+
+					return result;
+				}
+
+			});
+	}
+
+	public synchronized void setTTL(String path, long ttl) {
+		_ttls.put(path, ttl);
+	}
+
+	protected synchronized JSONArray get(String key) throws JSONException {
+		CacheEntry entry = _entries.get(key);
+
+		if ((entry != null) && (entry.expires < System.currentTimeMillis())) {
+			_entries.remove(key);
+			_evictions.incrementAndGet();
+
+			entry = null;
+		}
+
+		if (entry == null) {
+			_misses.incrementAndGet();
+
+			return null;
+		}
+
+		_hits.incrementAndGet();
+
+		return (JSONArray)JSONUtil.copy(entry.result);
+	}
+
+	protected String getFamily(String path) {
+		return CommandUtil.getFamily(path);
+	}
+
+	protected synchronized long getGeneration() {
+		return _generation;
+	}
+
+	protected List<String> getMutationFamilies(JSONObject command)
+		throws JSONException {
+
+		List<String> families = new ArrayList<String>();
+
+		for (String path : CommandUtil.getPaths(command)) {
+			if (!isMutation(path)) {
+				continue;
+			}
+
+			String family = getFamily(path);
+
+			if (!families.contains(family)) {
+				families.add(family);
+			}
+		}
+
+		return families;
+	}
+
+	protected String getPath(JSONObject command) throws JSONException {
+		return CommandUtil.getPath(command);
+	}
+
+	protected void invalidate(List<String> families) {
+		for (String family : families) {
+			invalidate(family);
+		}
+	}
+
+	protected JSONArray invokeMutation(
+			JSONObject command, final List<String> families)
+		throws Exception {
+
+		// Reads that start while the write is in flight see the first
+		// invalidation's generation, so invalidate again once it is done
+
+		invalidate(families);
+
+		final Callback callback = getCallback();
+
+		if (callback == null) {
+			try {
+				return super.invoke(command);
+			}
+			finally {
+				invalidate(families);
+			}
+		}
+
+		return HttpUtil.post(
+			this, command,
+			new Callback() {
+
+				@Override
+				public void doFailure(Exception exception) {
+					invalidate(families);
+
+					callback.doFailure(exception);
+				}
+
+				@Override
+				public void inBackground(Response response) {
+					invalidate(families);
+
+					callback.inBackground(response);
+				}
+
+			});
+	}
+
+	protected boolean isCacheable(JSONObject command) throws JSONException {
+		return CommandUtil.isReadOnly(command);
+	}
+
+	protected boolean isMutation(String path) {
+		return CommandUtil.isMutation(path);
+	}
+
+	protected synchronized void put(
+			String key, String path, JSONArray result, long generation)
+		throws JSONException {
+
+		if ((result == null) || (generation != _generation)) {
+			return;
+		}
+
+		long ttl = getTTL(path);
+
+		if (ttl <= 0) {
+			return;
+		}
+
+		long expires = System.currentTimeMillis() + ttl;
+
+		_entries.put(
+			key,
+			new CacheEntry(path, (JSONArray)JSONUtil.copy(result), expires));
+	}
+
+	private final Map<String, CacheEntry> _entries =
+		new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<String, CacheEntry> eldest) {
+
+				if (size() > _maxEntries) {
+					_evictions.incrementAndGet();
+
+					return true;
+				}
+
+				return false;
+			}
+
+		};
+
+	private final AtomicLong _evictions = new AtomicLong();
+	private long _generation;
+	private final AtomicLong _hits = new AtomicLong();
+	private final AtomicLong _invalidations = new AtomicLong();
+	private final int _maxEntries;
+	private final AtomicLong _misses = new AtomicLong();
+	private final long _ttl;
+	private final Map<String, Long> _ttls = new HashMap<String, Long>();
+
+	private static class CacheEntry {
+
+		public CacheEntry(String path, JSONArray result, long expires) {
+			this.path = path;
+			this.result = result;
+			this.expires = expires;
+		}
+
+		protected final long expires;
+		protected final String path;
+		protected final JSONArray result;
+
+	}
+
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.service;
+
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.util.JSONUtil;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class CommandChain {
+
+	public CommandChain(Session session) {
+		_session = session;
+	}
+
+	public CommandChain add(JSONObject command) throws JSONException {
+		return add(_DEFAULT_NAME_PREFIX + _steps.size(), command);
+	}
+
+	public CommandChain add(String name, JSONObject command)
+		throws JSONException {
+
+		if (command.length() != 1) {
+			throw new IllegalArgumentException(
+				"Expected a single command but got " + command.length());
+		}
+
+		String path = (String)command.keys().next();
+
+		return add(name, path, command.getJSONObject(path));
+	}
+
+	public CommandChain add(String name, String path, JSONObject params) {
+		if (indexOf(name) != -1) {
+			throw new IllegalArgumentException(
+				"Step " + name + " was already added");
+		}
+
+		_steps.add(new Step(name, path, params));
+
+		return this;
+	}
+
+	public CommandChain as(String name) {
+		Step step = getLastStep();
+
+		if (!step.name.equals(name) && (indexOf(name) != -1)) {
+			throw new IllegalArgumentException(
+				"Step " + name + " was already added");
+		}
+
+		step.name = name;
+
+		return this;
+	}
+
+	public JSONObject getCommand() throws JSONException {
+		if (_steps.isEmpty()) {
+			throw new IllegalStateException("Command chain is empty");
+		}
+
+		String key = null;
+		JSONObject nested = null;
+
+		for (int i = _steps.size() - 1; i >= 0; i--) {
+			Step step = _steps.get(i);
+
+			JSONObject params = copy(step.params);
+
+			if (nested != null) {
+				params.put(key, nested);
+			}
+
+			key = "$" + step.name + " = " + step.path;
+			nested = params;
+		}
+
+		JSONObject command = new JSONObject();
+
+		command.put(key, nested);
+
+		return command;
+	}
+
+	public <T> T getResult(JSONArray results, String name, Class<T> type)
+		throws JSONException {
+
+		int index = indexOf(name);
+
+		if (index == -1) {
+			throw new IllegalArgumentException("Unknown step " + name);
+		}
+
+		return JSONUtil.getValue(results, index, type);
+	}
+
+	public Session getSession() {
+		return new ChainSession(_session);
+	}
+
+	public int indexOf(String name) {
+		for (int i = 0; i < _steps.size(); i++) {
+			if (_steps.get(i).name.equals(name)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	public JSONArray invoke() throws Exception {
+		return invokeAsync().join();
+	}
+
+	public Promise<JSONArray> invokeAsync() {
+		JSONObject command;
+
+		try {
+			command = getCommand();
+		}
+		catch (Exception e) {
+			return Promise.failed(e);
+		}
+
+		return _session.invokeAsync(command).thenApply(
+			new Promise.Function<JSONArray, JSONArray>() {
+
+				@Override
+				public JSONArray apply(JSONArray result) throws Exception {
+					return getResults(result);
+				}
+
+			});
+	}
+
+	public int size() {
+		return _steps.size();
+	}
+
+	public CommandChain with(String param, String reference)
+		throws JSONException {
+
+		Step step = getLastStep();
+
+		step.params.remove(param);
+		step.params.put("@" + param, reference);
+
+		return this;
+	}
+
+	protected JSONObject copy(JSONObject jsonObj) throws JSONException {
+		JSONObject copy = new JSONObject();
+
+		Iterator<?> it = jsonObj.keys();
+
+		while (it.hasNext()) {
+			String key = (String)it.next();
+
+			copy.put(key, jsonObj.get(key));
+		}
+
+		return copy;
+	}
+
+	protected Object detach(Object value, String name) {
+		if (value instanceof JSONObject) {
+			Object nested = ((JSONObject)value).remove(name);
+
+			if (nested == null) {
+				return JSONObject.NULL;
+			}
+
+			return nested;
+		}
+
+		if (value instanceof JSONArray) {
+			JSONArray array = (JSONArray)value;
+			JSONArray nested = new JSONArray();
+
+			for (int i = 0; i < array.length(); i++) {
+				nested.put(detach(array.opt(i), name));
+			}
+
+			return nested;
+		}
+
+		return JSONObject.NULL;
+	}
+
+	protected Step getLastStep() {
+		if (_steps.isEmpty()) {
+			throw new IllegalStateException("Command chain is empty");
+		}
+
+		return _steps.get(_steps.size() - 1);
+	}
+
+	protected JSONArray getResults(JSONArray result) throws JSONException {
+		JSONArray results = new JSONArray();
+
+		Object value = result.get(0);
+
+		for (int i = 0; i < _steps.size(); i++) {
+			Object nested = null;
+
+			if (i < (_steps.size() - 1)) {
+				nested = detach(value, _steps.get(i + 1).name);
+			}
+
+			results.put(value);
+
+			value = nested;
+		}
+
+		return results;
+	}
+
+	private static final String _DEFAULT_NAME_PREFIX = "step";
+
+	private final Session _session;
+	private final List<Step> _steps = new ArrayList<Step>();
+
+	private class ChainSession extends SessionImpl {
+
+		public ChainSession(Session session) {
+			super(session);
+		}
+
+		@Override
+		public JSONArray invoke(JSONObject command) throws Exception {
+			add(command);
+
+			return null;
+		}
+
+		@Override
+		public Promise<JSONArray> invokeAsync(JSONObject command) {
+			return Promise.failed(
+				new IllegalStateException(
+					"Can't invoke chained requests async"));
+		}
+
+		@Override
+		public JSONArray upload(JSONObject command) throws Exception {
+			throw new IllegalStateException("Can't chain upload requests");
+		}
+
+	}
+
+	protected static class Step {
+
+		public Step(String name, String path, JSONObject params) {
+			this.name = name;
+			this.path = path;
+			this.params = params;
+		}
+
+		protected String name;
+		protected final JSONObject params;
+		protected final String path;
+
+	}
+
+}
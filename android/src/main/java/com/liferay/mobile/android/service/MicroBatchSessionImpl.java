@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.service;
+
+import com.liferay.mobile.android.callback.BaseCallback;
+import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.callback.CallbackListener;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.exception.ServerException;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.util.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class MicroBatchSessionImpl extends SessionImpl {
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 20;
+
+	public static final int DEFAULT_WINDOW = 10;
+
+	public MicroBatchSessionImpl(Session session) {
+		this(session, DEFAULT_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	public MicroBatchSessionImpl(
+		Session session, int window, int maxBatchSize) {
+
+		super(session);
+
+		_window = window;
+		_maxBatchSize = maxBatchSize;
+	}
+
+	public void flush() {
+		List<PendingCommand> batch;
+
+		synchronized (this) {
+			batch = takeBatch();
+		}
+
+		send(batch);
+	}
+
+	public long getBatchCount() {
+		return _batchCount.get();
+	}
+
+	public long getCommandCount() {
+		return _commandCount.get();
+	}
+
+	public int getMaxBatchSize() {
+		return _maxBatchSize;
+	}
+
+	public int getWindow() {
+		return _window;
+	}
+
+	@Override
+	public JSONArray invoke(JSONObject command) throws Exception {
+		Callback callback = getCallback();
+
+		if (callback == null) {
+			return invokeAsync(command).join();
+		}
+
+		if (!(callback instanceof BaseCallback)) {
+			throw new IllegalArgumentException(
+				"Micro batched requests require a BaseCallback");
+		}
+
+		invokeAsync(command).addListener(
+			CallbackListener.create((BaseCallback<?>)callback));
+
+		return null;
+	}
+
+	@Override
+	public Promise<JSONArray> invokeAsync(JSONObject command) {
+		PendingCommand pending = new PendingCommand(command);
+
+		List<PendingCommand> batch = null;
+
+		synchronized (this) {
+			_pending.add(pending);
+
+			if (_pending.size() >= _maxBatchSize) {
+				batch = takeBatch();
+			}
+			else if (_flushFuture == null) {
+				_flushFuture = _scheduler.schedule(
+					new Runnable() {
+
+						@Override
+						public void run() {
+							flush();
+						}
+
+					},
+					_window, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		if (batch != null) {
+			send(batch);
+		}
+
+		return pending.promise;
+	}
+
+	protected void send(final List<PendingCommand> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		_batchCount.incrementAndGet();
+		_commandCount.addAndGet(batch.size());
+
+		JSONArray commands = new JSONArray();
+
+		for (PendingCommand pending : batch) {
+			commands.put(pending.command);
+		}
+
+		Callback callback = new Callback() {
+
+			@Override
+			public void doFailure(Exception exception) {
+				for (PendingCommand pending : batch) {
+					pending.fail(exception);
+				}
+			}
+
+			@Override
+			public void inBackground(Response response) {
+				try {
+					JSONArray results = response.getBodyAsJSONArray();
+
+					if (results.length() != batch.size()) {
+						throw new ServerException(
+							"Expected " + batch.size() + " results but got " +
+								results.length());
+					}
+
+					for (int i = 0; i < batch.size(); i++) {
+						batch.get(i).complete(results.get(i));
+					}
+				}
+				catch (Exception e) {
+					doFailure(e);
+				}
+			}
+
+		};
+
+		try {
+			HttpUtil.post(this, commands, callback);
+		}
+		catch (Exception e) {
+			callback.doFailure(e);
+		}
+	}
+
+	protected List<PendingCommand> takeBatch() {
+		List<PendingCommand> batch = _pending;
+
+		_pending = new ArrayList<PendingCommand>();
+
+		if (_flushFuture != null) {
+			_flushFuture.cancel(false);
+
+			_flushFuture = null;
+		}
+
+		return batch;
+	}
+
+	private static final ScheduledExecutorService _scheduler =
+		Executors.newSingleThreadScheduledExecutor(
+			new NamedThreadFactory("Liferay-MicroBatch"));
+
+	private final AtomicLong _batchCount = new AtomicLong();
+	private final AtomicLong _commandCount = new AtomicLong();
+	private ScheduledFuture<?> _flushFuture;
+	private final int _maxBatchSize;
+	private List<PendingCommand> _pending = new ArrayList<PendingCommand>();
+	private final int _window;
+
+	private static class PendingCommand {
+
+		public PendingCommand(JSONObject command) {
+			this.command = command;
+		}
+
+		public void complete(Object result) {
+			JSONArray array = new JSONArray();
+			array.put(result);
+
+			promise.complete(array);
+		}
+
+		public void fail(Exception exception) {
+			promise.completeExceptionally(exception);
+		}
+
+		protected final JSONObject command;
+		protected final Promise<JSONArray> promise = new Promise<JSONArray>();
+
+	}
+
+}
\ No newline at end of file
@@ -14,8 +14,10 @@
 
 package com.liferay.mobile.android.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.Constructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Bruno Farache
@@ -26,22 +28,61 @@ public class ServiceFactory {
 			Class<T> clazz, Session session)
 		throws Exception {
 
-		T instance = (T)_services.get(clazz.getName());
+		return getConstructor(clazz).newInstance(session);
+	}
+
+	public ServiceFactory(Session session) {
+		_session = session;
+	}
+
+	public int getCount() {
+		return _services.size();
+	}
+
+	public <T extends BaseService> T getService(Class<T> clazz)
+		throws Exception {
+
+		BaseService service = _services.get(clazz);
+
+		if (service == null) {
+			service = getService(clazz, _session);
 
-		if (instance == null) {
-			instance = clazz.getDeclaredConstructor(Session.class).newInstance(
-				session);
+			BaseService existingService = _services.putIfAbsent(
+				clazz, service);
 
-			_services.put(clazz.getName(), instance);
+			if (existingService != null) {
+				service = existingService;
+			}
 		}
-		else {
-			instance.setSession(session);
+
+		return clazz.cast(service);
+	}
+
+	public Session getSession() {
+		return _session;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static <T extends BaseService> Constructor<T> getConstructor(
+			Class<T> clazz)
+		throws Exception {
+
+		Constructor<T> constructor = (Constructor<T>)_constructors.get(clazz);
+
+		if (constructor == null) {
+			constructor = clazz.getDeclaredConstructor(Session.class);
+
+			_constructors.putIfAbsent(clazz, constructor);
 		}
 
-		return instance;
+		return constructor;
 	}
 
-	private static Map<String, BaseService> _services =
-		new HashMap<String, BaseService>();
+	private static final ConcurrentMap<Class<?>, Constructor<?>> _constructors =
+		new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+	private final ConcurrentMap<Class<?>, BaseService> _services =
+		new ConcurrentHashMap<Class<?>, BaseService>();
+	private final Session _session;
 
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@ package com.liferay.mobile.android.service;
 
 import com.liferay.mobile.android.auth.Authentication;
 import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.callback.Promise;
 
 import java.util.Map;
 
@@ -39,6 +40,8 @@ public interface Session {
 
 	JSONArray invoke(JSONObject command) throws Exception;
 
+	Promise<JSONArray> invokeAsync(JSONObject command);
+
 	void setAuthentication(Authentication authentication);
 
 	void setCallback(Callback callback);
@@ -16,6 +16,8 @@ package com.liferay.mobile.android.service;
 
 import com.liferay.mobile.android.auth.Authentication;
 import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.callback.PromiseCallback;
 import com.liferay.mobile.android.http.HttpUtil;
 import com.liferay.mobile.android.http.file.UploadData;
 
@@ -99,6 +101,20 @@ public class SessionImpl implements Session {
 		return HttpUtil.post(this, command);
 	}
 
+	@Override
+	public Promise<JSONArray> invokeAsync(JSONObject command) {
+		Promise<JSONArray> promise = new Promise<JSONArray>();
+
+		try {
+			HttpUtil.post(this, command, new PromiseCallback(promise));
+		}
+		catch (Exception e) {
+			promise.completeExceptionally(e);
+		}
+
+		return promise;
+	}
+
 	@Override
 	public void setAuthentication(Authentication authentication) {
 		this.authentication = authentication;
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.service;
+
+import com.liferay.mobile.android.auth.Authentication;
+import com.liferay.mobile.android.auth.basic.BasicAuthentication;
+import com.liferay.mobile.android.auth.basic.CookieAuthentication;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.util.CharPool;
+import com.liferay.mobile.android.util.PortalVersion;
+import com.liferay.mobile.android.util.PortalVersionUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class SessionSnapshot {
+
+	public static SessionSnapshot load(File file) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+
+		Properties properties = new Properties();
+
+		InputStream is = new FileInputStream(file);
+
+		try {
+			properties.load(is);
+		}
+		finally {
+			is.close();
+		}
+
+		SessionSnapshot snapshot = new SessionSnapshot();
+
+		try {
+			snapshot._authToken = properties.getProperty("authToken");
+			snapshot._companyId = getLong(properties, "companyId", 0);
+			snapshot._connectionTimeout = (int)getLong(
+				properties, "connectionTimeout",
+				SessionImpl.DEFAULT_CONNECTION_TIMEOUT);
+			snapshot._cookieHeader = properties.getProperty("cookieHeader");
+
+			String groupIds = properties.getProperty("groupIds");
+
+			if (groupIds != null) {
+				for (String groupId : groupIds.split(",")) {
+					snapshot._groupIds.add(Long.valueOf(groupId));
+				}
+			}
+
+			snapshot._jsonWSPath = properties.getProperty("jsonWSPath");
+			snapshot._portalVersion = (int)getLong(
+				properties, "portalVersion", PortalVersion.UNKNOWN);
+			snapshot._server = properties.getProperty("server");
+			snapshot._timestamp = getLong(properties, "timestamp", 0);
+			snapshot._userId = getLong(properties, "userId", 0);
+			snapshot._username = properties.getProperty("username");
+		}
+		catch (NumberFormatException nfe) {
+			throw new IOException("Invalid snapshot " + file, nfe);
+		}
+
+		return snapshot;
+	}
+
+	public SessionSnapshot(Session session) {
+		_server = session.getServer();
+		_connectionTimeout = session.getConnectionTimeout();
+
+		Authentication authentication = session.getAuthentication();
+
+		if (authentication instanceof CookieAuthentication) {
+			CookieAuthentication cookieAuthentication =
+				(CookieAuthentication)authentication;
+
+			_authToken = cookieAuthentication.getAuthToken();
+			_cookieHeader = cookieAuthentication.getCookieHeader();
+		}
+
+		if (authentication instanceof BasicAuthentication) {
+			_username = ((BasicAuthentication)authentication).getUsername();
+		}
+
+		_portalVersion = PortalVersionUtil.getCachedPortalVersion(_server);
+		_jsonWSPath = HttpUtil.getJSONWSPath(_server);
+		_timestamp = System.currentTimeMillis();
+	}
+
+	public String getAuthToken() {
+		return _authToken;
+	}
+
+	public long getCompanyId() {
+		return _companyId;
+	}
+
+	public String getCookieHeader() {
+		return _cookieHeader;
+	}
+
+	public List<Long> getGroupIds() {
+		return _groupIds;
+	}
+
+	public String getJSONWSPath() {
+		return _jsonWSPath;
+	}
+
+	public int getPortalVersion() {
+		return _portalVersion;
+	}
+
+	public String getServer() {
+		return _server;
+	}
+
+	public long getTimestamp() {
+		return _timestamp;
+	}
+
+	public long getUserId() {
+		return _userId;
+	}
+
+	public String getUsername() {
+		return _username;
+	}
+
+	public Session restore(String password) {
+		if (_jsonWSPath != null) {
+			HttpUtil.setJSONWSPath(_server, _jsonWSPath);
+		}
+
+		if ((_portalVersion != PortalVersion.UNKNOWN) &&
+			(PortalVersionUtil.getCachedPortalVersion(_server) ==
+				PortalVersion.UNKNOWN)) {
+
+			PortalVersionUtil.setPortalVersion(
+				_server, _portalVersion, _jsonWSPath);
+		}
+
+		Authentication authentication = null;
+
+		if (_cookieHeader != null) {
+			authentication = new CookieAuthentication(
+				_server, _authToken, _cookieHeader, _username, password);
+		}
+		else if (_username != null) {
+			authentication = new BasicAuthentication(_username, password);
+		}
+
+		return new SessionImpl(
+			_server, authentication, _connectionTimeout, null);
+	}
+
+	public void save(File file) throws IOException {
+		Properties properties = new Properties();
+
+		setProperty(properties, "authToken", _authToken);
+		setProperty(properties, "companyId", _companyId);
+		setProperty(properties, "connectionTimeout", _connectionTimeout);
+		setProperty(properties, "cookieHeader", _cookieHeader);
+
+		if (!_groupIds.isEmpty()) {
+			StringBuilder sb = new StringBuilder();
+
+			for (Long groupId : _groupIds) {
+				if (sb.length() > 0) {
+					sb.append(CharPool.COMMA);
+				}
+
+				sb.append(groupId);
+			}
+
+			properties.setProperty("groupIds", sb.toString());
+		}
+
+		setProperty(properties, "jsonWSPath", _jsonWSPath);
+		setProperty(properties, "portalVersion", _portalVersion);
+		setProperty(properties, "server", _server);
+		setProperty(properties, "timestamp", _timestamp);
+		setProperty(properties, "userId", _userId);
+		setProperty(properties, "username", _username);
+
+		File tempFile = new File(file.getPath() + ".tmp");
+
+		OutputStream os = new FileOutputStream(tempFile);
+
+		try {
+			properties.store(os, null);
+		}
+		finally {
+			os.close();
+		}
+
+		if (tempFile.renameTo(file)) {
+			return;
+		}
+
+		// Windows does not replace an existing file on rename, so move the
+		// old snapshot aside and put it back if the new one cannot be moved
+
+		File oldFile = new File(file.getPath() + ".old");
+
+		oldFile.delete();
+
+		if (!file.renameTo(oldFile) || !tempFile.renameTo(file)) {
+			if (!file.exists()) {
+				oldFile.renameTo(file);
+			}
+
+			tempFile.delete();
+
+			throw new IOException("Unable to write " + file);
+		}
+
+		oldFile.delete();
+	}
+
+	public void setGroupIds(List<Long> groupIds) {
+		_groupIds = new ArrayList<Long>(groupIds);
+	}
+
+	public void setSites(JSONArray sites) throws JSONException {
+		List<Long> groupIds = new ArrayList<Long>(sites.length());
+
+		for (int i = 0; i < sites.length(); i++) {
+			groupIds.add(sites.getJSONObject(i).getLong("groupId"));
+		}
+
+		_groupIds = groupIds;
+	}
+
+	public void setUser(JSONObject user) throws JSONException {
+		_companyId = user.getLong("companyId");
+		_userId = user.getLong("userId");
+	}
+
+	protected static long getLong(
+		Properties properties, String key, long defaultValue) {
+
+		String value = properties.getProperty(key);
+
+		if (value == null) {
+			return defaultValue;
+		}
+
+		return Long.parseLong(value);
+	}
+
+	protected static void setProperty(
+		Properties properties, String key, Object value) {
+
+		if (value != null) {
+			properties.setProperty(key, String.valueOf(value));
+		}
+	}
+
+	private SessionSnapshot() {
+	}
+
+	private String _authToken;
+	private long _companyId;
+	private int _connectionTimeout = SessionImpl.DEFAULT_CONNECTION_TIMEOUT;
+	private String _cookieHeader;
+	private List<Long> _groupIds = new ArrayList<Long>();
+	private String _jsonWSPath;
+	private int _portalVersion = PortalVersion.UNKNOWN;
+	private String _server;
+	private long _timestamp;
+	private long _userId;
+	private String _username;
+
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.service;
+
+import com.liferay.mobile.android.callback.BaseCallback;
+import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.callback.CallbackListener;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.util.CommandUtil;
+import com.liferay.mobile.android.util.JSONUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class SingleFlightSessionImpl extends SessionImpl {
+
+	public SingleFlightSessionImpl(Session session) {
+		super(session);
+	}
+
+	public long getHits() {
+		return _hits.get();
+	}
+
+	public synchronized int getInFlightCount() {
+		return _inFlight.size();
+	}
+
+	public long getMisses() {
+		return _misses.get();
+	}
+
+	@Override
+	public JSONArray invoke(JSONObject command) throws Exception {
+		Callback callback = getCallback();
+
+		if (callback != null) {
+			if (!(callback instanceof BaseCallback)) {
+				return super.invoke(command);
+			}
+
+			invokeAsync(command).addListener(
+				CallbackListener.create((BaseCallback<?>)callback));
+
+			return null;
+		}
+
+		if (!isShareable(command)) {
+			return super.invoke(command);
+		}
+
+		String key = getKey(command);
+		Promise<JSONArray> promise = new Promise<JSONArray>();
+
+		Promise<JSONArray> inFlight = attach(key, promise);
+
+		if (inFlight != null) {
+			return inFlight.join();
+		}
+
+		JSONArray result;
+
+		try {
+			result = super.invoke(command);
+		}
+		catch (Exception e) {
+			detach(key, promise);
+			promise.completeExceptionally(e);
+
+			throw e;
+		}
+
+		detach(key, promise);
+		promise.complete(result);
+
+		return result;
+	}
+
+	@Override
+	public Promise<JSONArray> invokeAsync(JSONObject command) {
+		final String key;
+
+		try {
+			if (!isShareable(command)) {
+				return super.invokeAsync(command);
+			}
+
+			key = getKey(command);
+		}
+		catch (JSONException je) {
+			return Promise.failed(je);
+		}
+
+		final Promise<JSONArray> promise = new Promise<JSONArray>();
+
+		Promise<JSONArray> inFlight = attach(key, promise);
+
+		if (inFlight != null) {
+			return inFlight;
+		}
+
+		final Promise<JSONArray> own = new Promise<JSONArray>();
+
+		super.invokeAsync(command).addListener(
+			new Promise.Listener<JSONArray>() {
+
+				@Override
+				public void onFailure(Exception exception) {
+					detach(key, promise);
+					promise.completeExceptionally(exception);
+					own.completeExceptionally(exception);
+				}
+
+				@Override
+				public void onSuccess(JSONArray result) {
+					detach(key, promise);
+					promise.complete(result);
+					own.complete(result);
+				}
+
+			});
+
+		return own;
+	}
+
+	protected synchronized Promise<JSONArray> attach(
+		String key, Promise<JSONArray> promise) {
+
+		Promise<JSONArray> inFlight = _inFlight.get(key);
+
+		if (inFlight != null) {
+			_hits.incrementAndGet();
+
+			// Waiters are registered before the shared promise can complete,
+			// so their copies are taken before the first caller gets the
+			// result
+
+			return inFlight.thenApply(_copyFunction);
+		}
+
+		_misses.incrementAndGet();
+
+		_inFlight.put(key, promise);
+
+		return null;
+	}
+
+	protected synchronized void detach(
+		String key, Promise<JSONArray> promise) {
+
+		if (_inFlight.get(key) == promise) {
+			_inFlight.remove(key);
+		}
+	}
+
+	protected String getKey(JSONObject command) throws JSONException {
+		return JSONUtil.canonicalize(command);
+	}
+
+	protected boolean isShareable(JSONObject command) throws JSONException {
+		return CommandUtil.isReadOnly(command);
+	}
+
+	private static final Promise.Function<JSONArray, JSONArray>
+		_copyFunction = new Promise.Function<JSONArray, JSONArray>() {
+
+			@Override
+			public JSONArray apply(JSONArray result) throws Exception {
+				return (JSONArray)JSONUtil.copy(result);
+			}
+
+		};
+
+	private final AtomicLong _hits = new AtomicLong();
+	private final Map<String, Promise<JSONArray>> _inFlight =
+		new HashMap<String, Promise<JSONArray>>();
+	private final AtomicLong _misses = new AtomicLong();
+
+}
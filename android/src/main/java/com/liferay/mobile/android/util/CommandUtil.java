@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class CommandUtil {
+
+	public static String getFamily(String path) {
+		int index = path.lastIndexOf(CharPool.SLASH);
+
+		return path.substring(0, index + 1);
+	}
+
+	public static String getMethod(String path) {
+		int index = path.lastIndexOf(CharPool.SLASH);
+
+		return path.substring(index + 1);
+	}
+
+	public static String getPath(JSONObject command) throws JSONException {
+		if (command.length() == 0) {
+			return "";
+		}
+
+		return getPath(command.names().getString(0));
+	}
+
+	public static String getPath(String key) {
+		int index = key.indexOf(CharPool.EQUAL);
+
+		if ((index == -1) || !key.startsWith(_VARIABLE_PREFIX)) {
+			return key;
+		}
+
+		return key.substring(index + 1).trim();
+	}
+
+	public static List<String> getPaths(JSONObject command)
+		throws JSONException {
+
+		List<String> paths = new ArrayList<String>();
+
+		Iterator<?> it = command.keys();
+
+		while (it.hasNext()) {
+			String key = (String)it.next();
+
+			paths.add(getPath(key));
+
+			addNestedPaths(command.opt(key), paths);
+		}
+
+		return paths;
+	}
+
+	public static boolean isMutation(String path) {
+		String method = getMethod(path);
+
+		return method.startsWith("add-") || method.startsWith("delete-") ||
+			method.startsWith("move-") || method.startsWith("update-");
+	}
+
+	public static boolean isReadOnly(JSONObject command) throws JSONException {
+		List<String> paths = getPaths(command);
+
+		if (paths.isEmpty()) {
+			return false;
+		}
+
+		for (String path : paths) {
+			if (!isReadOnly(path)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public static boolean isReadOnly(String path) {
+		if (isMutation(path)) {
+			return false;
+		}
+
+		String method = getMethod(path);
+
+		return method.startsWith("get-") || method.endsWith("-count");
+	}
+
+	protected static void addNestedPaths(Object params, List<String> paths)
+		throws JSONException {
+
+		if (!(params instanceof JSONObject)) {
+			return;
+		}
+
+		JSONObject jsonObj = (JSONObject)params;
+
+		Iterator<?> it = jsonObj.keys();
+
+		while (it.hasNext()) {
+			String key = (String)it.next();
+
+			if (!key.startsWith(_VARIABLE_PREFIX) ||
+				(key.indexOf(CharPool.EQUAL) == -1)) {
+
+				continue;
+			}
+
+			paths.add(getPath(key));
+
+			addNestedPaths(jsonObj.opt(key), paths);
+		}
+	}
+
+	private static final String _VARIABLE_PREFIX = "$";
+
+}
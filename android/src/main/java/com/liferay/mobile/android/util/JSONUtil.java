@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * @author Bruno Farache
+ */
+public class JSONUtil {
+
+	public static String canonicalize(Object value) throws JSONException {
+		StringBuilder sb = new StringBuilder();
+
+		canonicalize(value, sb);
+
+		return sb.toString();
+	}
+
+	public static Object copy(Object value) throws JSONException {
+		if (value instanceof JSONObject) {
+			JSONObject jsonObj = (JSONObject)value;
+
+			JSONObject copy = new JSONObject();
+
+			Iterator<?> it = jsonObj.keys();
+
+			while (it.hasNext()) {
+				String key = (String)it.next();
+
+				copy.put(key, copy(jsonObj.get(key)));
+			}
+
+			return copy;
+		}
+
+		if (value instanceof JSONArray) {
+			JSONArray jsonArray = (JSONArray)value;
+
+			JSONArray copy = new JSONArray();
+
+			for (int i = 0; i < jsonArray.length(); i++) {
+				copy.put(copy(jsonArray.get(i)));
+			}
+
+			return copy;
+		}
+
+		return value;
+	}
+
+	public static <T> T getValue(JSONArray array, int index, Class<T> type)
+		throws JSONException {
+
+		if (type == Void.class) {
+			return null;
+		}
+
+		Object value;
+
+		if (type == Boolean.class) {
+			value = array.getBoolean(index);
+		}
+		else if (type == Double.class) {
+			value = array.getDouble(index);
+		}
+		else if (type == Integer.class) {
+			value = array.getInt(index);
+		}
+		else if (type == JSONArray.class) {
+			value = array.getJSONArray(index);
+		}
+		else if (type == JSONObject.class) {
+			value = array.getJSONObject(index);
+		}
+		else if (type == Long.class) {
+			value = array.getLong(index);
+		}
+		else if (type == String.class) {
+			value = array.getString(index);
+		}
+		else {
+			value = array.get(index);
+		}
+
+		return type.cast(value);
+	}
+
+	protected static void canonicalize(Object value, StringBuilder sb)
+		throws JSONException {
+
+		if (value instanceof JSONObject) {
+			JSONObject jsonObj = (JSONObject)value;
+
+			List<String> keys = new ArrayList<String>(jsonObj.length());
+			Iterator<?> it = jsonObj.keys();
+
+			while (it.hasNext()) {
+				keys.add((String)it.next());
+			}
+
+			Collections.sort(keys);
+
+			sb.append(CharPool.OPEN_CURLY_BRACE);
+
+			for (int i = 0; i < keys.size(); i++) {
+				String key = keys.get(i);
+
+				if (i > 0) {
+					sb.append(CharPool.COMMA);
+				}
+
+				sb.append(JSONObject.quote(key));
+				sb.append(CharPool.COLON);
+
+				canonicalize(jsonObj.get(key), sb);
+			}
+
+			sb.append(CharPool.CLOSE_CURLY_BRACE);
+		}
+		else if (value instanceof JSONArray) {
+			JSONArray jsonArray = (JSONArray)value;
+
+			sb.append(CharPool.OPEN_BRACKET);
+
+			for (int i = 0; i < jsonArray.length(); i++) {
+				if (i > 0) {
+					sb.append(CharPool.COMMA);
+				}
+
+				canonicalize(jsonArray.get(i), sb);
+			}
+
+			sb.append(CharPool.CLOSE_BRACKET);
+		}
+		else if (value instanceof String) {
+			sb.append(JSONObject.quote((String)value));
+		}
+		else if (value instanceof Number) {
+			sb.append(JSONObject.numberToString((Number)value));
+		}
+		else {
+			sb.append(String.valueOf(value));
+		}
+	}
+
+}
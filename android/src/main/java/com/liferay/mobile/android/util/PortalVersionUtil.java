@@ -14,51 +14,197 @@
 
 package com.liferay.mobile.android.util;
 
+import com.liferay.mobile.android.exception.ServerException;
 import com.liferay.mobile.android.http.Headers;
 import com.liferay.mobile.android.http.HttpUtil;
 import com.liferay.mobile.android.http.Method;
 import com.liferay.mobile.android.http.Request;
 import com.liferay.mobile.android.http.Response;
+import com.liferay.mobile.android.http.Status;
 import com.liferay.mobile.android.service.Session;
-import com.liferay.mobile.android.v7.portal.PortalService;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 /**
  * @author Bruno Farache
  */
 public class PortalVersionUtil {
 
+	public static final long DEFAULT_TTL = 24 * 60 * 60 * 1000;
+
+	public static void clearCache() {
+		for (String server : _cache.keySet()) {
+			_cache.remove(server);
+
+			HttpUtil.setJSONWSPath(server, null);
+		}
+	}
+
+	public static int getCachedPortalVersion(String server) {
+		CacheEntry entry = getCacheEntry(server);
+
+		if (entry == null) {
+			return PortalVersion.UNKNOWN;
+		}
+
+		return entry.version;
+	}
+
 	public static int getPortalVersion(Session session) throws Exception {
-		int version = getBuilderNumberHeader(session);
+		String server = session.getServer();
 
-		if (version == PortalVersion.UNKNOWN) {
-			try {
-				version = getBuilderNumber(session, HttpUtil.JSONWS_PATH_62);
+		CacheEntry entry = getCacheEntry(server);
+
+		if (entry != null) {
+			return entry.version;
+		}
+
+		synchronized (getLock(server)) {
+			entry = getCacheEntry(server);
+
+			if (entry != null) {
+				return entry.version;
 			}
-			catch (Exception e) {
-				version = getBuilderNumber(session, HttpUtil.JSONWS_PATH_61);
+
+			String jsonWSPath = null;
+			int version = getBuilderNumberHeader(session);
+
+			if (version == PortalVersion.UNKNOWN) {
+				try {
+					version = getBuilderNumber(
+						session, HttpUtil.JSONWS_PATH_62);
+
+					jsonWSPath = HttpUtil.JSONWS_PATH_62;
+				}
+				catch (Exception e) {
+					version = getBuilderNumber(
+						session, HttpUtil.JSONWS_PATH_61);
+
+					jsonWSPath = HttpUtil.JSONWS_PATH_61;
+				}
 			}
+
+			put(
+				server,
+				new CacheEntry(
+					version, jsonWSPath, System.currentTimeMillis()));
+
+			return version;
 		}
+	}
 
-		return version;
+	public static long getTTL() {
+		return _ttl;
 	}
 
-	protected static int getBuilderNumber(Session session, String jsonWSPath)
-		throws Exception {
+	public static void invalidate(String server) {
+		if (_cache.remove(server) != null) {
+			HttpUtil.setJSONWSPath(server, null);
 
-		HttpUtil.setJSONWSPath(jsonWSPath);
+			save();
+		}
+	}
+
+	public static void setCacheFile(File cacheFile) throws IOException {
+		_cacheFile = cacheFile;
+
+		if (!cacheFile.exists()) {
+			return;
+		}
 
-		PortalService service = new PortalService(session);
+		Properties properties = new Properties();
 
-		int version = PortalVersion.UNKNOWN;
+		InputStream is = new FileInputStream(cacheFile);
 
 		try {
-			version = service.getBuildNumber();
+			properties.load(is);
 		}
 		finally {
-			HttpUtil.setJSONWSPath(HttpUtil.JSONWS_PATH_62);
+			is.close();
+		}
+
+		for (String server : properties.stringPropertyNames()) {
+			String[] values = properties.getProperty(server).split(",");
+
+			if (values.length < 2) {
+				continue;
+			}
+
+			String jsonWSPath = null;
+
+			if (values.length > 2) {
+				jsonWSPath = values[2];
+			}
+
+			CacheEntry entry;
+
+			try {
+				entry = new CacheEntry(
+					Integer.parseInt(values[0]), jsonWSPath,
+					Long.parseLong(values[1]));
+			}
+			catch (NumberFormatException nfe) {
+				continue;
+			}
+
+			_cache.put(server, entry);
+
+			if (jsonWSPath != null) {
+				HttpUtil.setJSONWSPath(server, jsonWSPath);
+			}
+		}
+	}
+
+	public static void setPortalVersion(
+		String server, int version, String jsonWSPath) {
+
+		put(
+			server,
+			new CacheEntry(version, jsonWSPath, System.currentTimeMillis()));
+	}
+
+	public static void setTTL(long ttl) {
+		_ttl = ttl;
+	}
+
+	protected static int getBuilderNumber(Session session, String jsonWSPath)
+		throws Exception {
+
+		JSONObject command = new JSONObject();
+
+		command.put("/portal/get-build-number", new JSONObject());
+
+		JSONArray commands = new JSONArray();
+
+		commands.put(command);
+
+		Request request = new Request(
+			session.getAuthentication(), Method.POST, session.getHeaders(),
+			HttpUtil.getURL(session.getServer(), jsonWSPath, "/invoke"),
+			commands.toString(), session.getConnectionTimeout(), null);
+
+		Response response = HttpUtil.send(request);
+
+		if (response.getStatusCode() != Status.OK) {
+			response.close();
+
+			throw new ServerException(
+				"Request failed. Response code: " + response.getStatusCode());
 		}
 
-		return version;
+		return response.getBodyAsJSONArray().getInt(0);
 	}
 
 	protected static int getBuilderNumberHeader(Session session)
@@ -89,4 +235,103 @@ public class PortalVersionUtil {
 		}
 	}
 
-}
\ No newline at end of file
+	protected static CacheEntry getCacheEntry(String server) {
+		CacheEntry entry = _cache.get(server);
+
+		if ((entry == null) ||
+			((System.currentTimeMillis() - entry.timestamp) > _ttl)) {
+
+			return null;
+		}
+
+		return entry;
+	}
+
+	protected static Object getLock(String server) {
+		Object lock = _locks.get(server);
+
+		if (lock == null) {
+			Object newLock = new Object();
+
+			lock = _locks.putIfAbsent(server, newLock);
+
+			if (lock == null) {
+				lock = newLock;
+			}
+		}
+
+		return lock;
+	}
+
+	protected static void put(String server, CacheEntry entry) {
+		_cache.put(server, entry);
+
+		if (entry.jsonWSPath != null) {
+			HttpUtil.setJSONWSPath(server, entry.jsonWSPath);
+		}
+
+		save();
+	}
+
+	protected static synchronized void save() {
+		File cacheFile = _cacheFile;
+
+		if (cacheFile == null) {
+			return;
+		}
+
+		Properties properties = new Properties();
+
+		for (Map.Entry<String, CacheEntry> entry : _cache.entrySet()) {
+			CacheEntry cacheEntry = entry.getValue();
+
+			StringBuilder sb = new StringBuilder();
+
+			sb.append(cacheEntry.version);
+			sb.append(CharPool.COMMA);
+			sb.append(cacheEntry.timestamp);
+
+			if (cacheEntry.jsonWSPath != null) {
+				sb.append(CharPool.COMMA);
+				sb.append(cacheEntry.jsonWSPath);
+			}
+
+			properties.setProperty(entry.getKey(), sb.toString());
+		}
+
+		try {
+			OutputStream os = new FileOutputStream(cacheFile);
+
+			try {
+				properties.store(os, null);
+			}
+			finally {
+				os.close();
+			}
+		}
+		catch (IOException ioe) {
+		}
+	}
+
+	private static final Map<String, CacheEntry> _cache =
+		new ConcurrentHashMap<String, CacheEntry>();
+	private static volatile File _cacheFile;
+	private static final ConcurrentHashMap<String, Object> _locks =
+		new ConcurrentHashMap<String, Object>();
+	private static volatile long _ttl = DEFAULT_TTL;
+
+	private static class CacheEntry {
+
+		public CacheEntry(int version, String jsonWSPath, long timestamp) {
+			this.version = version;
+			this.jsonWSPath = jsonWSPath;
+			this.timestamp = timestamp;
+		}
+
+		protected final String jsonWSPath;
+		protected final long timestamp;
+		protected final int version;
+
+	}
+
+}
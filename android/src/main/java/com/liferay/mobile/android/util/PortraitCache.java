@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.util;
+
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.http.file.FileCache;
+import com.liferay.mobile.android.service.Session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * @author Bruno Farache
+ */
+public class PortraitCache {
+
+	public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+	public static final long DEFAULT_MAX_DISK_SIZE = 20 * 1024 * 1024;
+
+	public static final long DEFAULT_MAX_MEMORY_SIZE = 4 * 1024 * 1024;
+
+	public static final long DEFAULT_TTL = 5 * 60 * 1000;
+
+	public static String getKey(long portraitId) {
+		return "portrait:" + portraitId;
+	}
+
+	public PortraitCache(Session session, File directory) throws IOException {
+		this(
+			session, directory, DEFAULT_MAX_MEMORY_SIZE, DEFAULT_MAX_DISK_SIZE,
+			DEFAULT_MAX_CONCURRENCY);
+	}
+
+	public PortraitCache(
+			Session session, File directory, long maxMemorySize,
+			long maxDiskSize, int maxConcurrency)
+		throws IOException {
+
+		_session = session;
+		_maxMemorySize = maxMemorySize;
+
+		_fileCache = new FileCache(directory, maxDiskSize);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(),
+			new NamedThreadFactory("Liferay-Portrait"));
+
+		executor.allowCoreThreadTimeOut(true);
+
+		_executor = executor;
+	}
+
+	public void clear() {
+		synchronized (this) {
+			_entries.clear();
+			_size = 0;
+		}
+
+		_fileCache.clear();
+	}
+
+	public byte[] get(long portraitId) throws Exception {
+		return get(portraitId, true, null);
+	}
+
+	public byte[] get(long portraitId, boolean male, String uuid)
+		throws Exception {
+
+		byte[] bytes = getFromMemory(portraitId);
+
+		if (bytes != null) {
+			return bytes;
+		}
+
+		Promise<byte[]> promise = new Promise<byte[]>();
+
+		Promise<byte[]> inFlight = attach(portraitId, promise);
+
+		if (inFlight != null) {
+			return inFlight.join();
+		}
+
+		load(portraitId, male, uuid, promise);
+
+		return promise.join();
+	}
+
+	public Promise<byte[]> getAsync(long portraitId) {
+		return getAsync(portraitId, true, null);
+	}
+
+	public Promise<byte[]> getAsync(
+		final long portraitId, final boolean male, final String uuid) {
+
+		final Promise<byte[]> promise = new Promise<byte[]>();
+
+		byte[] bytes = getFromMemory(portraitId);
+
+		if (bytes != null) {
+			promise.complete(bytes);
+
+			return promise;
+		}
+
+		Promise<byte[]> inFlight = attach(portraitId, promise);
+
+		if (inFlight != null) {
+			return inFlight;
+		}
+
+		_executor.execute(
+			new Runnable() {
+
+				@Override
+				public void run() {
+					load(portraitId, male, uuid, promise);
+				}
+
+			});
+
+		return promise;
+	}
+
+	public synchronized int getCount() {
+		return _entries.size();
+	}
+
+	public FileCache getFileCache() {
+		return _fileCache;
+	}
+
+	public long getHits() {
+		return _hits.get();
+	}
+
+	public long getMaxMemorySize() {
+		return _maxMemorySize;
+	}
+
+	public synchronized long getMemorySize() {
+		return _size;
+	}
+
+	public long getMisses() {
+		return _misses.get();
+	}
+
+	public long getTTL() {
+		return _ttl;
+	}
+
+	public Promise<List<byte[]>> prefetch(Collection<Long> portraitIds) {
+		List<Promise<byte[]>> promises = new ArrayList<Promise<byte[]>>(
+			portraitIds.size());
+
+		for (Long portraitId : portraitIds) {
+			promises.add(getAsync(portraitId));
+		}
+
+		return Promise.all(promises);
+	}
+
+	public void remove(long portraitId) {
+		synchronized (this) {
+			CacheEntry entry = _entries.remove(portraitId);
+
+			if (entry != null) {
+				_size -= entry.bytes.length;
+			}
+		}
+
+		_fileCache.remove(getKey(portraitId));
+	}
+
+	public void setTTL(long ttl) {
+		_ttl = ttl;
+	}
+
+	public void shutdown() {
+		_executor.shutdown();
+	}
+
+	protected synchronized Promise<byte[]> attach(
+		long portraitId, Promise<byte[]> promise) {
+
+		Promise<byte[]> inFlight = _inFlight.get(portraitId);
+
+		if (inFlight != null) {
+			return inFlight;
+		}
+
+		_inFlight.put(portraitId, promise);
+
+		return null;
+	}
+
+	protected synchronized void detach(
+		long portraitId, Promise<byte[]> promise) {
+
+		if (_inFlight.get(portraitId) == promise) {
+			_inFlight.remove(portraitId);
+		}
+	}
+
+	protected synchronized byte[] getFromMemory(long portraitId) {
+		CacheEntry entry = _entries.get(portraitId);
+
+		if ((entry == null) ||
+			((System.currentTimeMillis() - entry.validated) > _ttl)) {
+
+			_misses.incrementAndGet();
+
+			return null;
+		}
+
+		_hits.incrementAndGet();
+
+		return entry.bytes.clone();
+	}
+
+	protected void load(
+		long portraitId, boolean male, String uuid, Promise<byte[]> promise) {
+
+		byte[] bytes;
+
+		try {
+			String url = PortraitUtil.getPortraitURL(
+				_session, male, portraitId, uuid);
+
+			InputStream is = _fileCache.get(
+				_session, getKey(portraitId), url, null);
+
+			bytes = read(is);
+
+			put(portraitId, bytes.clone());
+		}
+		catch (Exception e) {
+			detach(portraitId, promise);
+			promise.completeExceptionally(e);
+
+			return;
+		}
+
+		detach(portraitId, promise);
+		promise.complete(bytes);
+	}
+
+	protected synchronized void put(long portraitId, byte[] bytes) {
+		CacheEntry entry = _entries.put(
+			portraitId, new CacheEntry(bytes, System.currentTimeMillis()));
+
+		if (entry != null) {
+			_size -= entry.bytes.length;
+		}
+
+		_size += bytes.length;
+
+		Iterator<CacheEntry> it = _entries.values().iterator();
+
+		while ((_size > _maxMemorySize) && (_entries.size() > 1) &&
+				it.hasNext()) {
+
+			entry = it.next();
+
+			it.remove();
+
+			_size -= entry.bytes.length;
+		}
+	}
+
+	protected byte[] read(InputStream is) throws IOException {
+		BufferedSource source = Okio.buffer(Okio.source(is));
+
+		try {
+			return source.readByteArray();
+		}
+		finally {
+			source.close();
+		}
+	}
+
+	private final Map<Long, CacheEntry> _entries =
+		new LinkedHashMap<Long, CacheEntry>(16, 0.75f, true);
+	private final ExecutorService _executor;
+	private final FileCache _fileCache;
+	private final AtomicLong _hits = new AtomicLong();
+	private final Map<Long, Promise<byte[]>> _inFlight =
+		new HashMap<Long, Promise<byte[]>>();
+	private final long _maxMemorySize;
+	private final AtomicLong _misses = new AtomicLong();
+	private final Session _session;
+	private long _size;
+	private volatile long _ttl = DEFAULT_TTL;
+
+	private static class CacheEntry {
+
+		public CacheEntry(byte[] bytes, long validated) {
+			this.bytes = bytes;
+			this.validated = validated;
+		}
+
+		protected final byte[] bytes;
+		protected final long validated;
+
+	}
+
+}
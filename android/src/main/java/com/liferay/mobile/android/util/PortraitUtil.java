@@ -16,7 +16,6 @@ package com.liferay.mobile.android.util;
 
 import android.util.Base64;
 
-import com.liferay.mobile.android.callback.file.FileProgressCallback;
 import com.liferay.mobile.android.http.Headers;
 import com.liferay.mobile.android.http.HttpUtil;
 import com.liferay.mobile.android.http.Response;
@@ -30,12 +29,16 @@ import java.io.OutputStream;
 import java.net.URLEncoder;
 
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.xml.bind.DatatypeConverter;
 
+import okio.Okio;
+
 /**
  * @author Bruno Farache
  * @author Silvio Santos
@@ -43,39 +46,23 @@ import javax.xml.bind.DatatypeConverter;
 public class PortraitUtil {
 
 	public static String downloadPortrait(
-			Session session, String portraitURL, final OutputStream os,
+			Session session, String portraitURL, OutputStream os,
 			String modifiedDate)
 		throws Exception {
 
 		String lastModified = null;
 
 		try {
-			Map<String, String> headers = new HashMap<String, String>();
+			Map<String, String> headers = session.getHeaders();
 
 			if (Validator.isNotNull(modifiedDate)) {
+				headers = new HashMap<String, String>(headers);
+
 				headers.put(Headers.IF_MODIFIED_SINCE, modifiedDate);
 			}
 
-			session.setHeaders(headers);
-
 			Response response = HttpUtil.download(
-				session, portraitURL, new FileProgressCallback() {
-
-				@Override
-				public void onBytes(byte[] bytes) {
-					try {
-						os.write(bytes);
-					}
-					catch (IOException ioe) {
-						setCancelled(true);
-					}
-				}
-
-				@Override
-				public void onProgress(int totalBytes) {
-				}
-
-			});
+				session, portraitURL, headers, Okio.sink(os), null);
 
 			lastModified = response.getHeaders().get(Headers.LAST_MODIFIED);
 		}
@@ -139,7 +126,42 @@ public class PortraitUtil {
 			return;
 		}
 
-		MessageDigest digest = MessageDigest.getInstance("SHA-1");
+		String token;
+
+		synchronized (_tokens) {
+			token = _tokens.get(uuid);
+		}
+
+		if (token == null) {
+			token = getToken(uuid);
+
+			if (token == null) {
+				return;
+			}
+
+			synchronized (_tokens) {
+				_tokens.put(uuid, token);
+			}
+		}
+
+		sb.append("&img_id_token=");
+		sb.append(token);
+	}
+
+	protected static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ioe) {
+			}
+		}
+	}
+
+	protected static String getToken(String uuid) throws Exception {
+		MessageDigest digest = _digest.get();
+
+		digest.reset();
 		digest.update(uuid.getBytes());
 
 		byte[] bytes = digest.digest();
@@ -155,20 +177,40 @@ public class PortraitUtil {
 			}
 		}
 
-		if (token != null) {
-			sb.append("&img_id_token=");
-			sb.append(URLEncoder.encode(token, "UTF8"));
+		if (token == null) {
+			return null;
 		}
+
+		return URLEncoder.encode(token, "UTF8");
 	}
 
-	protected static void close(Closeable closeable) {
-		if (closeable != null) {
-			try {
-				closeable.close();
+	private static final int _MAX_TOKENS = 512;
+
+	private static final ThreadLocal<MessageDigest> _digest =
+		new ThreadLocal<MessageDigest>() {
+
+			@Override
+			protected MessageDigest initialValue() {
+				try {
+					return MessageDigest.getInstance("SHA-1");
+				}
+				catch (NoSuchAlgorithmException nsae) {
+					throw new IllegalStateException(nsae);
+				}
 			}
-			catch (IOException ioe) {
+
+		};
+
+	private static final Map<String, String> _tokens =
+		new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<String, String> eldest) {
+
+				return size() > _MAX_TOKENS;
 			}
-		}
-	}
+
+		};
 
 }
\ No newline at end of file
@@ -53,4 +53,26 @@ public class BatchSessionTest extends BaseTest {
 		assertNull(result);
 	}
 
+	@Test
+	public void getUserSitesInChunks() throws Exception {
+		BatchSessionImpl session = new BatchSessionImpl(this.session);
+
+		session.setChunkSize(2);
+		session.setParallelism(2);
+
+		GroupService service = new GroupService(session);
+
+		for (int i = 0; i < 5; i++) {
+			service.getUserSitesGroups();
+		}
+
+		JSONArray result = session.invoke();
+
+		assertEquals(5, result.length());
+
+		for (int i = 0; i < 5; i++) {
+			GroupServiceTest.assertUserSites(result.getJSONArray(i));
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.client.HttpClient;
+import com.liferay.mobile.android.http.client.StubClient;
+import com.liferay.mobile.android.service.CachingSessionImpl;
+import com.liferay.mobile.android.service.SessionImpl;
+import com.liferay.mobile.android.v7.group.GroupService;
+
+import java.io.IOException;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class CachingSessionTest extends BaseTest {
+
+	public CachingSessionTest() throws IOException {
+		super();
+	}
+
+	@Test
+	public void getUserSites() throws Exception {
+		CachingSessionImpl session = new CachingSessionImpl(this.session);
+
+		GroupService service = new GroupService(session);
+
+		JSONArray sites = service.getUserSitesGroups();
+		GroupServiceTest.assertUserSites(sites);
+
+		JSONArray cachedSites = service.getUserSitesGroups();
+
+		assertNotSame(sites, cachedSites);
+		assertEquals(sites.toString(), cachedSites.toString());
+		assertEquals(1, session.getHits());
+		assertEquals(1, session.getMisses());
+		assertEquals(0.5, session.getHitRatio(), 0);
+
+		assertEquals(1, session.invalidate("/group/"));
+		assertEquals(0, session.getSize());
+
+		GroupServiceTest.assertUserSites(service.getUserSitesGroups());
+		assertEquals(2, session.getMisses());
+	}
+
+	@Test
+	public void nestedWrite() throws Exception {
+		HttpClient client = HttpUtil.getClient();
+		StubClient stubClient = new StubClient();
+
+		HttpUtil.setClient(stubClient);
+
+		try {
+			CachingSessionImpl session = new CachingSessionImpl(
+				new SessionImpl("http://localhost:8080"));
+
+			JSONObject read = new JSONObject();
+			read.put(
+				"$folder = /dlapp/get-folder",
+				new JSONObject("{\"folderId\": 1}"));
+
+			Promise<JSONArray> promise = session.invokeAsync(read);
+
+			stubClient.respond(0, "[{\"name\": \"a\"}]");
+
+			promise.join().getJSONObject(0).put("name", "b");
+
+			JSONArray cached = session.invokeAsync(read).join();
+
+			assertEquals("a", cached.getJSONObject(0).getString("name"));
+			assertEquals(1, session.getSize());
+
+			JSONObject params = new JSONObject();
+			params.put(
+				"$folder = /dlapp/add-folder",
+				new JSONObject("{\"name\": \"b\"}"));
+
+			JSONObject write = new JSONObject();
+			write.put("$group = /group/get-group", params);
+
+			session.invokeAsync(write);
+			session.invokeAsync(new JSONObject(write.toString()));
+
+			assertEquals(3, stubClient.getCallbackCount());
+			assertEquals(0, session.getSize());
+		}
+		finally {
+			HttpUtil.setClient(client);
+		}
+	}
+
+	@Test
+	public void readDuringWrite() throws Exception {
+		HttpClient client = HttpUtil.getClient();
+		StubClient stubClient = new StubClient();
+
+		HttpUtil.setClient(stubClient);
+
+		try {
+			CachingSessionImpl session = new CachingSessionImpl(
+				new SessionImpl("http://localhost:8080"));
+
+			JSONObject read = new JSONObject();
+			read.put("/group/get-group", new JSONObject("{\"groupId\": 1}"));
+
+			JSONObject write = new JSONObject();
+			write.put(
+				"/group/update-group", new JSONObject("{\"groupId\": 1}"));
+
+			Promise<JSONArray> writePromise = session.invokeAsync(write);
+			Promise<JSONArray> readPromise = session.invokeAsync(read);
+
+			stubClient.respond(0, "[{\"name\": \"new\"}]");
+			stubClient.respond(1, "[{\"name\": \"old\"}]");
+
+			writePromise.join();
+			readPromise.join();
+
+			assertEquals(0, session.getSize());
+
+			Promise<JSONArray> promise = session.invokeAsync(read);
+
+			stubClient.respond(2, "[{\"name\": \"new\"}]");
+
+			promise.join();
+
+			assertEquals(3, stubClient.getCallbackCount());
+			assertEquals(1, session.getSize());
+		}
+		finally {
+			HttpUtil.setClient(client);
+		}
+	}
+
+	@Test
+	public void ttl() throws Exception {
+		CachingSessionImpl session = new CachingSessionImpl(this.session);
+
+		session.setTTL("/group/get-user-sites-groups", 0);
+
+		GroupService service = new GroupService(session);
+
+		service.getUserSitesGroups();
+		service.getUserSitesGroups();
+
+		assertEquals(0, session.getHits());
+		assertEquals(0, session.getSize());
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.service.CommandChain;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.service.SessionImpl;
+import com.liferay.mobile.android.v7.dlapp.DLAppService;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class CommandChainTest {
+
+	@Test
+	public void getCommand() throws Exception {
+		CommandChain chain = new CommandChain(
+			new SessionImpl("http://localhost:8080"));
+
+		DLAppService service = new DLAppService(chain.getSession());
+
+		assertNull(service.getFolder(10));
+
+		chain.as("folder");
+
+		assertNull(service.getFileEntries(20, 0));
+
+		chain.with("folderId", "$folder.folderId");
+
+		JSONObject command = chain.getCommand();
+
+		JSONObject folder = command.getJSONObject(
+			"$folder = /dlapp/get-folder");
+
+		assertEquals(10, folder.getLong("folderId"));
+
+		JSONObject fileEntries = folder.getJSONObject(
+			"$step1 = /dlapp/get-file-entries");
+
+		assertEquals(20, fileEntries.getLong("repositoryId"));
+		assertEquals("$folder.folderId", fileEntries.getString("@folderId"));
+		assertFalse(fileEntries.has("folderId"));
+
+		assertEquals(command.toString(), chain.getCommand().toString());
+	}
+
+	@Test
+	public void invoke() throws Exception {
+		final JSONArray response = new JSONArray(
+			"[{\"folderId\": 10, \"name\": \"Docs\", \"entries\": [" +
+				"{\"fileEntryId\": 1, \"versions\": 2}, " +
+				"{\"fileEntryId\": 2, \"versions\": 3}]}]");
+
+		Session session = new SessionImpl("http://localhost:8080") {
+
+			@Override
+			public Promise<JSONArray> invokeAsync(JSONObject command) {
+				Promise<JSONArray> promise = new Promise<JSONArray>();
+
+				promise.complete(response);
+
+				return promise;
+			}
+
+		};
+
+		CommandChain chain = new CommandChain(session);
+
+		chain.add(
+			"folder", "/dlapp/get-folder",
+			new JSONObject("{\"folderId\": 10}"));
+		chain.add(
+			"entries", "/dlapp/get-file-entries",
+			new JSONObject("{\"repositoryId\": 20}"));
+		chain.with("folderId", "$folder.folderId");
+		chain.add(
+			"versions", "/dlfileversion/get-file-versions-count",
+			new JSONObject("{\"status\": 0}"));
+		chain.with("fileEntryId", "$entries.fileEntryId");
+
+		JSONArray results = chain.invoke();
+
+		assertEquals(3, results.length());
+
+		JSONObject folder = chain.getResult(
+			results, "folder", JSONObject.class);
+
+		assertEquals("Docs", folder.getString("name"));
+		assertFalse(folder.has("entries"));
+
+		JSONArray entries = chain.getResult(
+			results, "entries", JSONArray.class);
+
+		assertEquals(2, entries.length());
+		assertFalse(entries.getJSONObject(0).has("versions"));
+
+		JSONArray versions = chain.getResult(
+			results, "versions", JSONArray.class);
+
+		assertEquals(2, versions.getInt(0));
+		assertEquals(3, versions.getInt(1));
+	}
+
+}
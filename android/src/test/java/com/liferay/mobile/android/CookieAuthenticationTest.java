@@ -15,6 +15,7 @@
 package com.liferay.mobile.android;
 
 import com.liferay.mobile.android.auth.CookieSignIn;
+import com.liferay.mobile.android.auth.basic.CookieAuthentication;
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.service.SessionImpl;
 import com.liferay.mobile.android.v7.group.GroupService;
@@ -28,6 +29,7 @@ import org.json.JSONArray;
 
 import org.junit.Test;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.fail;
 
 /**
@@ -39,6 +41,24 @@ public class CookieAuthenticationTest extends BaseTest {
 		super();
 	}
 
+	@Test
+	public void renew() throws Exception {
+		Session session = new SessionImpl(this.session);
+
+		Session cookieSession = CookieSignIn.signIn(session);
+
+		CookieAuthentication authentication =
+			(CookieAuthentication)cookieSession.getAuthentication();
+
+		authentication.setCookieHeader("JSESSIONID=expired;");
+
+		GroupService service = new GroupService(cookieSession);
+
+		GroupServiceTest.assertUserSites(service.getUserSitesGroups());
+
+		assertEquals(1, authentication.getRenewalCount());
+	}
+
 	@Test
 	public void signIn_sync() throws Exception {
 		Session session = new SessionImpl(this.session);
@@ -14,6 +14,8 @@
 
 package com.liferay.mobile.android;
 
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.JSONArrayReader;
 import com.liferay.mobile.android.v7.group.GroupService;
 
 import java.io.IOException;
@@ -56,4 +58,25 @@ public class GroupServiceTest extends BaseTest {
 		assertUserSites(sites);
 	}
 
+	@Test
+	public void streamUserSites() throws Exception {
+		JSONObject command = new JSONObject();
+		command.put("/group/get-user-sites-groups", new JSONObject());
+
+		JSONArrayReader reader = HttpUtil.stream(session, command);
+
+		JSONArray sites = new JSONArray();
+
+		try {
+			while (reader.hasNext()) {
+				sites.put(reader.next());
+			}
+		}
+		finally {
+			reader.close();
+		}
+
+		assertUserSites(sites);
+	}
+
 }
\ No newline at end of file
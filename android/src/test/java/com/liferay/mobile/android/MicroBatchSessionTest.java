@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.service.MicroBatchSessionImpl;
+import com.liferay.mobile.android.v7.group.GroupService;
+
+import java.io.IOException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class MicroBatchSessionTest extends BaseTest {
+
+	public MicroBatchSessionTest() throws IOException {
+		super();
+	}
+
+	@Test
+	public void getUserSites() throws Exception {
+		final MicroBatchSessionImpl session = new MicroBatchSessionImpl(
+			this.session, 1000, 3);
+
+		final JSONArray[] sites = new JSONArray[3];
+		final CountDownLatch lock = new CountDownLatch(3);
+
+		for (int i = 0; i < 3; i++) {
+			final int index = i;
+
+			new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						GroupService service = new GroupService(session);
+						sites[index] = service.getUserSitesGroups();
+					}
+					catch (Exception e) {
+						fail(e.getMessage());
+					}
+					finally {
+						lock.countDown();
+					}
+				}
+
+			}.start();
+		}
+
+		lock.await(2000, TimeUnit.MILLISECONDS);
+
+		for (JSONArray result : sites) {
+			GroupServiceTest.assertUserSites(result);
+		}
+
+		assertEquals(1, session.getBatchCount());
+		assertEquals(3, session.getCommandCount());
+	}
+
+}
@@ -17,7 +17,12 @@ package com.liferay.mobile.android;
 import com.liferay.mobile.android.util.PortalVersion;
 import com.liferay.mobile.android.util.PortalVersionUtil;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Properties;
 
 import org.junit.Test;
 
@@ -39,4 +44,60 @@ public class PortalVersionTest extends BaseTest {
 		assertTrue(version >= PortalVersion.V_6_2);
 	}
 
+	@Test
+	public void getPortalVersionCached() throws Exception {
+		File cacheFile = File.createTempFile("versions", ".properties");
+
+		PortalVersionUtil.clearCache();
+		PortalVersionUtil.setCacheFile(cacheFile);
+
+		int version = PortalVersionUtil.getPortalVersion(session);
+
+		assertTrue(cacheFile.length() > 0);
+
+		PortalVersionUtil.clearCache();
+		PortalVersionUtil.setCacheFile(cacheFile);
+
+		assertEquals(version, PortalVersionUtil.getPortalVersion(session));
+
+		cacheFile.delete();
+	}
+
+	@Test
+	public void setCacheFileWithInvalidEntries() throws Exception {
+		File cacheFile = File.createTempFile("versions", ".properties");
+
+		Properties properties = new Properties();
+
+		properties.setProperty("http://a", "6210,");
+		properties.setProperty("http://b", "x,1");
+		properties.setProperty(
+			"http://c", "6210," + System.currentTimeMillis());
+
+		OutputStream os = new FileOutputStream(cacheFile);
+
+		try {
+			properties.store(os, null);
+		}
+		finally {
+			os.close();
+		}
+
+		PortalVersionUtil.clearCache();
+		PortalVersionUtil.setCacheFile(cacheFile);
+
+		assertEquals(
+			PortalVersion.UNKNOWN,
+			PortalVersionUtil.getCachedPortalVersion("http://a"));
+		assertEquals(
+			PortalVersion.UNKNOWN,
+			PortalVersionUtil.getCachedPortalVersion("http://b"));
+		assertEquals(
+			6210, PortalVersionUtil.getCachedPortalVersion("http://c"));
+
+		PortalVersionUtil.clearCache();
+
+		cacheFile.delete();
+	}
+
 }
\ No newline at end of file
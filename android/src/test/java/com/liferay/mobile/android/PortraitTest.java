@@ -14,11 +14,16 @@
 
 package com.liferay.mobile.android;
 
+import com.liferay.mobile.android.util.PortraitCache;
 import com.liferay.mobile.android.util.PortraitUtil;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -32,6 +37,33 @@ public class PortraitTest extends BaseTest {
 		super();
 	}
 
+	@Test
+	public void cachePortrait() throws Exception {
+		File directory = File.createTempFile("portraits", "");
+
+		directory.delete();
+
+		PortraitCache cache = new PortraitCache(session, directory);
+
+		long portraitId = 21737;
+
+		List<byte[]> portraits = cache.prefetch(
+			Collections.singletonList(portraitId)).get();
+
+		assertEquals(7742, portraits.get(0).length);
+		assertEquals(1, cache.getFileCache().getMisses());
+
+		byte[] portrait = cache.get(portraitId);
+
+		assertEquals(7742, portrait.length);
+		assertEquals(1, cache.getHits());
+
+		cache.clear();
+		cache.shutdown();
+
+		directory.delete();
+	}
+
 	@Test
 	public void downloadPortrait() throws Exception {
 		ByteArrayOutputStream baos = new ByteArrayOutputStream();
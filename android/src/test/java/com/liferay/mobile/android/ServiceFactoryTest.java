@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.service.BaseService;
+import com.liferay.mobile.android.service.ServiceFactory;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.service.SessionImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class ServiceFactoryTest {
+
+	@Test
+	public void getService() throws Exception {
+		Session session1 = new SessionImpl("http://localhost:8080");
+		Session session2 = new SessionImpl("http://localhost:9090");
+
+		TestService service1 = ServiceFactory.getService(
+			TestService.class, session1);
+		TestService service2 = ServiceFactory.getService(
+			TestService.class, session2);
+
+		assertNotSame(service1, service2);
+		assertSame(session1, service1.getSession());
+		assertSame(session2, service2.getSession());
+	}
+
+	@Test
+	public void getServiceConcurrently() throws Exception {
+		Session session = new SessionImpl("http://localhost:8080");
+
+		final ServiceFactory factory = new ServiceFactory(session);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		List<Future<TestService>> futures =
+			new ArrayList<Future<TestService>>();
+
+		for (int i = 0; i < 64; i++) {
+			futures.add(
+				executor.submit(
+					new Callable<TestService>() {
+
+						@Override
+						public TestService call() throws Exception {
+							return factory.getService(TestService.class);
+						}
+
+					}));
+		}
+
+		TestService service = factory.getService(TestService.class);
+
+		for (Future<TestService> future : futures) {
+			assertSame(service, future.get());
+		}
+
+		executor.shutdown();
+
+		assertSame(session, service.getSession());
+		assertEquals(1, factory.getCount());
+
+		ServiceFactory otherFactory = new ServiceFactory(
+			new SessionImpl("http://localhost:9090"));
+
+		assertNotSame(service, otherFactory.getService(TestService.class));
+		assertSame(session, service.getSession());
+	}
+
+	public static class TestService extends BaseService {
+
+		public TestService(Session session) {
+			super(session);
+		}
+
+	}
+
+}
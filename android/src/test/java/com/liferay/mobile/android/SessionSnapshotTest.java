@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.auth.basic.CookieAuthentication;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.service.Session;
+import com.liferay.mobile.android.service.SessionImpl;
+import com.liferay.mobile.android.service.SessionSnapshot;
+import com.liferay.mobile.android.util.PortalVersion;
+import com.liferay.mobile.android.util.PortalVersionUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class SessionSnapshotTest {
+
+	public static final String SERVER = "http://localhost:8081";
+
+	@Test
+	public void loadInvalid() throws Exception {
+		_file = File.createTempFile("session", ".properties");
+
+		Properties properties = new Properties();
+
+		properties.setProperty("userId", "abc");
+
+		OutputStream os = new FileOutputStream(_file);
+
+		try {
+			properties.store(os, null);
+		}
+		finally {
+			os.close();
+		}
+
+		try {
+			SessionSnapshot.load(_file);
+
+			fail();
+		}
+		catch (IOException ioe) {
+			assertTrue(ioe.getCause() instanceof NumberFormatException);
+		}
+	}
+
+	@Test
+	public void saveAndRestore() throws Exception {
+		CookieAuthentication authentication = new CookieAuthentication(
+			SERVER, "token123", "JSESSIONID=1;", "test@liferay.com", "test");
+
+		Session session = new SessionImpl(SERVER, authentication);
+
+		PortalVersionUtil.setPortalVersion(
+			SERVER, PortalVersion.V_6_2, HttpUtil.JSONWS_PATH_61);
+
+		SessionSnapshot snapshot = new SessionSnapshot(session);
+
+		snapshot.setSites(
+			new JSONArray("[{\"groupId\": 10}, {\"groupId\": 20}]"));
+		snapshot.setUser(
+			new JSONObject("{\"companyId\": 1, \"userId\": 2}"));
+
+		_file = File.createTempFile("session", ".properties");
+
+		snapshot.save(_file);
+
+		Properties properties = new Properties();
+
+		InputStream is = new FileInputStream(_file);
+
+		try {
+			properties.load(is);
+		}
+		finally {
+			is.close();
+		}
+
+		assertNull(properties.getProperty("password"));
+
+		PortalVersionUtil.clearCache();
+
+		snapshot = SessionSnapshot.load(_file);
+
+		assertEquals(SERVER, snapshot.getServer());
+		assertEquals(1, snapshot.getCompanyId());
+		assertEquals(2, snapshot.getUserId());
+		assertEquals(Arrays.asList(10L, 20L), snapshot.getGroupIds());
+
+		Session restored = snapshot.restore(null);
+
+		CookieAuthentication restoredAuthentication =
+			(CookieAuthentication)restored.getAuthentication();
+
+		assertEquals("token123", restoredAuthentication.getAuthToken());
+		assertEquals(
+			"JSESSIONID=1;", restoredAuthentication.getCookieHeader());
+		assertEquals(
+			"test@liferay.com", restoredAuthentication.getUsername());
+		assertNull(restoredAuthentication.getPassword());
+		assertEquals(
+			PortalVersion.V_6_2,
+			PortalVersionUtil.getCachedPortalVersion(SERVER));
+		assertEquals(
+			HttpUtil.JSONWS_PATH_61, HttpUtil.getJSONWSPath(SERVER));
+
+		restored = snapshot.restore("test");
+
+		restoredAuthentication =
+			(CookieAuthentication)restored.getAuthentication();
+
+		assertEquals("test", restoredAuthentication.getPassword());
+	}
+
+	@After
+	public void tearDown() {
+		PortalVersionUtil.clearCache();
+		HttpUtil.setJSONWSPath(SERVER, null);
+
+		if (_file != null) {
+			_file.delete();
+		}
+	}
+
+	private File _file;
+
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android;
+
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.http.client.HttpClient;
+import com.liferay.mobile.android.http.client.StubClient;
+import com.liferay.mobile.android.service.SessionImpl;
+import com.liferay.mobile.android.service.SingleFlightSessionImpl;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class SingleFlightSessionTest {
+
+	@Test
+	public void addGroups() throws Exception {
+		SingleFlightSessionImpl session = new SingleFlightSessionImpl(
+			new SessionImpl("http://localhost:8080"));
+
+		JSONObject command = new JSONObject();
+		command.put("/group/add-group", new JSONObject("{\"name\": \"a\"}"));
+
+		Promise<JSONArray> first = session.invokeAsync(command);
+		Promise<JSONArray> second = session.invokeAsync(
+			new JSONObject(command.toString()));
+
+		assertNotSame(first, second);
+		assertEquals(0, session.getHits());
+		assertEquals(2, _client.getCallbackCount());
+		assertEquals(0, session.getInFlightCount());
+	}
+
+	@Test
+	public void getGroupWithNestedAdd() throws Exception {
+		SingleFlightSessionImpl session = new SingleFlightSessionImpl(
+			new SessionImpl("http://localhost:8080"));
+
+		JSONObject params = new JSONObject();
+		params.put(
+			"$folder = /dlapp/add-folder",
+			new JSONObject("{\"name\": \"a\"}"));
+
+		JSONObject command = new JSONObject();
+		command.put("$group = /group/get-group", params);
+
+		session.invokeAsync(command);
+		session.invokeAsync(new JSONObject(command.toString()));
+
+		assertEquals(0, session.getHits());
+		assertEquals(2, _client.getCallbackCount());
+	}
+
+	@Test
+	public void getUserSites() throws Exception {
+		SingleFlightSessionImpl session = new SingleFlightSessionImpl(
+			new SessionImpl("http://localhost:8080"));
+
+		JSONObject command = new JSONObject();
+		command.put("/group/get-user-sites-groups", new JSONObject());
+
+		Promise<JSONArray> first = session.invokeAsync(command);
+		Promise<JSONArray> second = session.invokeAsync(
+			new JSONObject(command.toString()));
+
+		assertEquals(1, session.getHits());
+		assertEquals(1, session.getMisses());
+		assertEquals(1, session.getInFlightCount());
+		assertEquals(1, _client.getCallbackCount());
+		assertFalse(first.isDone());
+
+		_client.respond(0, "[[{\"groupId\": 10}]]");
+
+		JSONArray firstSites = first.join().getJSONArray(0);
+		JSONArray secondSites = second.join().getJSONArray(0);
+
+		assertNotSame(firstSites, secondSites);
+		assertEquals(firstSites.toString(), secondSites.toString());
+		assertEquals(0, session.getInFlightCount());
+
+		session.invokeAsync(command);
+
+		assertEquals(2, session.getMisses());
+		assertEquals(2, _client.getCallbackCount());
+	}
+
+	@Before
+	public void setUp() {
+		_defaultClient = HttpUtil.getClient();
+
+		_client = new StubClient();
+
+		HttpUtil.setClient(_client);
+	}
+
+	@After
+	public void tearDown() {
+		HttpUtil.setClient(_defaultClient);
+	}
+
+	private StubClient _client;
+	private HttpClient _defaultClient;
+
+}
@@ -16,6 +16,7 @@ package com.liferay.mobile.android.async;
 
 import com.liferay.mobile.android.BaseTest;
 import com.liferay.mobile.android.GroupServiceTest;
+import com.liferay.mobile.android.callback.Promise;
 import com.liferay.mobile.android.callback.typed.JSONArrayCallback;
 import com.liferay.mobile.android.service.Session;
 import com.liferay.mobile.android.service.SessionImpl;
@@ -27,6 +28,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.json.JSONArray;
+import org.json.JSONObject;
 
 import org.junit.Test;
 
@@ -76,4 +78,18 @@ public class GroupServiceAsyncTest extends BaseTest {
 		GroupServiceTest.assertUserSites(sites[0]);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void getUserSitesPromise() throws Exception {
+		GroupService service = new GroupService(session);
+
+		JSONObject command = new JSONObject();
+		command.put("/group/get-user-sites-groups", new JSONObject());
+
+		Promise<JSONArray> promise = service.invokeAsync(
+			command, JSONArray.class);
+
+		GroupServiceTest.assertUserSites(
+			promise.get(500, TimeUnit.MILLISECONDS));
+	}
+
+}
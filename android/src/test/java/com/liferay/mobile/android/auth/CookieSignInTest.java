@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.auth;
+
+import java.io.ByteArrayInputStream;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class CookieSignInTest {
+
+	@Test
+	public void getAuthToken() throws Exception {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("<html>Liferay Liferay.authTok LLiferay.authToken=\"");
+		sb.append("abcd1234\";");
+
+		for (int i = 0; i < 100000; i++) {
+			sb.append("<div>Liferay</div>");
+		}
+
+		ByteArrayInputStream is = new ByteArrayInputStream(
+			sb.toString().getBytes("UTF-8"));
+
+		BufferedSource source = Okio.buffer(Okio.source(is));
+
+		assertEquals("abcd1234", CookieSignIn.getAuthToken(source));
+		assertTrue(is.available() > 0);
+	}
+
+	@Test
+	public void getAuthTokenNotFound() throws Exception {
+		Buffer buffer = new Buffer();
+
+		buffer.writeUtf8("<html>Liferay.authToken=\"abc");
+
+		assertNull(CookieSignIn.getAuthToken(buffer));
+	}
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.auth;
+
+import com.liferay.mobile.android.BaseTest;
+
+import java.io.IOException;
+
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class SignInTest extends BaseTest {
+
+	public SignInTest() throws IOException {
+		super();
+	}
+
+	@Test
+	public void getCommand() throws Exception {
+		JSONObject command = SignIn.getCommand(
+			"test@liferay.com", SignInMethod.EMAIL);
+
+		JSONObject siteParams = command.getJSONObject(
+			"$site = /group/get-user-sites-groups");
+
+		assertEquals(1, siteParams.getInt("max"));
+
+		JSONObject userParams = siteParams.getJSONObject(
+			"$user = /user/get-user-by-email-address");
+
+		assertEquals("$site.companyId", userParams.getString("@companyId"));
+		assertEquals(
+			"test@liferay.com", userParams.getString("emailAddress"));
+
+		command = SignIn.getCommand("10", SignInMethod.USER_ID);
+
+		assertEquals(
+			10, command.getJSONObject("/user/get-user-by-id").getLong("userId"));
+	}
+
+	@Test
+	public void signIn() throws Exception {
+		JSONObject user = SignIn.signIn(session);
+
+		assertEquals(props.getLogin(), user.getString("emailAddress"));
+	}
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.auth.basic;
+
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.Method;
+import com.liferay.mobile.android.http.Request;
+
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Response;
+
+import java.net.URL;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class DigestAuthenticationTest {
+
+	@Test
+	public void authenticate() throws Exception {
+		DigestAuthentication digest = new DigestAuthentication(
+			"Mufasa", "Circle Of Life") {
+
+			@Override
+			protected String getClientNonce() {
+				return "0a4f113b";
+			}
+
+		};
+
+		Request request = new Request(
+			Method.GET, Collections.<String, String>emptyMap(), _URL, null, 0);
+
+		digest.authenticate(request);
+
+		assertNull(request.peekHeaders().get(Headers.AUTHORIZATION));
+
+		com.squareup.okhttp.Request retry = digest.authenticate(
+			null, getChallenge(null));
+
+		String authorization = retry.header(Headers.AUTHORIZATION);
+
+		assertTrue(authorization.contains("nc=00000001"));
+		assertTrue(
+			authorization.contains(
+				"response=\"6629fae49393a05397450978507c4ef1\""));
+
+		digest.authenticate(request);
+
+		authorization = request.peekHeaders().get(Headers.AUTHORIZATION);
+
+		assertTrue(authorization.contains("nc=00000002"));
+		assertTrue(authorization.contains("opaque=\"" + _OPAQUE + "\""));
+		assertEquals(1, digest.getChallengeCount());
+
+		assertNull(digest.authenticate(null, getChallenge(authorization)));
+	}
+
+	@Test
+	public void getURI() throws Exception {
+		DigestAuthentication digest = new DigestAuthentication("", "");
+
+		assertEquals(
+			"/api/jsonws/invoke?p_auth=1",
+			digest.getURI(
+				new URL("http://localhost:8080/api/jsonws/invoke?p_auth=1")));
+		assertEquals("/", digest.getURI(new URL("http://localhost:8080")));
+	}
+
+	@Test
+	public void parseParams() {
+		DigestAuthentication digest = new DigestAuthentication("", "");
+
+		Map<String, String> params = digest.parseParams(
+			"realm=\"a, b\", qop=\"auth,auth-int\", stale=TRUE, " +
+				"nonce=\"x\\\"y\"");
+
+		assertEquals("a, b", params.get("realm"));
+		assertEquals("auth,auth-int", params.get("qop"));
+		assertEquals("TRUE", params.get("stale"));
+		assertEquals("x\"y", params.get("nonce"));
+	}
+
+	protected Response getChallenge(String authorization) {
+		com.squareup.okhttp.Request.Builder builder =
+			new com.squareup.okhttp.Request.Builder();
+
+		builder.url(_URL);
+
+		if (authorization != null) {
+			builder.header(Headers.AUTHORIZATION, authorization);
+		}
+
+		Response.Builder responseBuilder = new Response.Builder();
+
+		responseBuilder.request(builder.build());
+		responseBuilder.protocol(Protocol.HTTP_1_1);
+		responseBuilder.code(401);
+		responseBuilder.header(
+			Headers.WWW_AUTHENTICATE,
+			"Digest realm=\"testrealm@host.com\", qop=\"auth,auth-int\", " +
+				"nonce=\"dcd98b7102dd2f0e8b11d0f600bfb0c093\", " +
+					"opaque=\"" + _OPAQUE + "\"");
+
+		return responseBuilder.build();
+	}
+
+	private static final String _OPAQUE = "5ccc069c403ebaf9f0171e9517f40e41";
+
+	private static final String _URL = "http://www.nowhere.org/dir/index.html";
+
+}
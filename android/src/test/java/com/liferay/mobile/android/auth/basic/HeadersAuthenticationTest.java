@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.auth.basic;
+
+import com.liferay.mobile.android.auth.AuthenticationUtil;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.callback.PromiseCallback;
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.Method;
+import com.liferay.mobile.android.http.Request;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class HeadersAuthenticationTest {
+
+	@Test
+	public void getHeaders() {
+		BasicAuthentication basic = new BasicAuthentication("test", "test");
+
+		Map<String, String> headers = basic.getHeaders();
+
+		assertSame(headers, basic.getHeaders());
+		assertEquals("Basic dGVzdDp0ZXN0", headers.get(Headers.AUTHORIZATION));
+
+		basic.setPassword("password");
+
+		assertNotSame(headers, basic.getHeaders());
+		assertEquals(
+			"Basic dGVzdDpwYXNzd29yZA==",
+			basic.getHeaders().get(Headers.AUTHORIZATION));
+
+		CookieAuthentication cookie = new CookieAuthentication(
+			"token", "JSESSIONID=1", "test", "test");
+
+		headers = cookie.getHeaders();
+
+		assertEquals(
+			"COOKIE_SUPPORT=true; JSESSIONID=1", headers.get("Cookie"));
+		assertEquals("token", headers.get("X-CSRF-Token"));
+		assertNull(headers.get(Headers.AUTHORIZATION));
+
+		cookie.setAuthToken("other");
+
+		assertEquals("other", cookie.getHeaders().get("X-CSRF-Token"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getHeadersImmutable() {
+		BasicAuthentication basic = new BasicAuthentication("test", "test");
+
+		basic.getHeaders().put(Headers.AUTHORIZATION, "");
+	}
+
+	@Test
+	public void isHeadersOnly() {
+		assertTrue(
+			AuthenticationUtil.isHeadersOnly(
+				new BasicAuthentication("test", "test")));
+		assertTrue(
+			AuthenticationUtil.isHeadersOnly(
+				new CookieAuthentication(
+					"token", "JSESSIONID=1", "test", "test")));
+		assertFalse(
+			AuthenticationUtil.isHeadersOnly(
+				new DigestAuthentication("test", "test")));
+
+		BasicAuthentication basic = new BasicAuthentication("test", "test") {
+
+			@Override
+			public void authenticate(Request request) {
+				super.authenticate(request);
+
+				request.getHeaders().put("X-A", "1");
+			}
+
+		};
+
+		assertFalse(AuthenticationUtil.isHeadersOnly(basic));
+	}
+
+	@Test
+	public void requestHeadersCopiedForCallbacks() {
+		Map<String, String> headers = new HashMap<String, String>();
+
+		headers.put("X-A", "1");
+
+		Request request = new Request(
+			null, Method.GET, headers, "http://localhost", null, 0,
+			new PromiseCallback(new Promise<JSONArray>()));
+
+		headers.put("X-B", "2");
+
+		assertNotSame(headers, request.peekHeaders());
+		assertEquals(1, request.peekHeaders().size());
+	}
+
+	@Test
+	public void requestHeadersCopiedOnWrite() {
+		Map<String, String> headers = Collections.singletonMap("X-A", "1");
+
+		Request request = new Request(
+			Method.GET, headers, "http://localhost", null, 0);
+
+		assertSame(headers, request.peekHeaders());
+
+		request.getHeaders().put("X-B", "2");
+
+		assertEquals(1, headers.size());
+		assertEquals(2, request.peekHeaders().size());
+	}
+
+}
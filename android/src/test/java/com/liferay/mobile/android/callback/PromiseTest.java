@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.callback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class PromiseTest {
+
+	@Test
+	public void all() throws Exception {
+		Promise<Integer> first = new Promise<Integer>();
+		Promise<Integer> second = new Promise<Integer>();
+
+		List<Promise<Integer>> promises = new ArrayList<Promise<Integer>>();
+
+		promises.add(first);
+		promises.add(second);
+
+		Promise<List<Integer>> all = Promise.all(promises);
+
+		second.complete(2);
+		assertFalse(all.isDone());
+
+		first.complete(1);
+		assertTrue(all.isDone());
+
+		List<Integer> results = all.get();
+
+		assertEquals(2, results.size());
+		assertEquals(1, (int)results.get(0));
+		assertEquals(2, (int)results.get(1));
+	}
+
+	@Test
+	public void failure() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		Promise<Integer> length = promise.thenApply(
+			new Promise.Function<String, Integer>() {
+
+				@Override
+				public Integer apply(String value) {
+					return value.length();
+				}
+
+			});
+
+		promise.completeExceptionally(new IllegalStateException("failed"));
+
+		try {
+			length.get();
+			fail();
+		}
+		catch (ExecutionException ee) {
+			assertTrue(ee.getCause() instanceof IllegalStateException);
+		}
+
+		try {
+			length.join();
+			fail();
+		}
+		catch (IllegalStateException ise) {
+			assertEquals("failed", ise.getMessage());
+		}
+	}
+
+	@Test
+	public void failureWithError() throws Exception {
+		Promise<String> promise = new Promise<String>();
+		Promise<Integer> length = promise.thenApply(
+			new Promise.Function<String, Integer>() {
+
+				@Override
+				public Integer apply(String value) {
+					throw new AssertionError("failed");
+				}
+
+			});
+
+		promise.complete("liferay");
+
+		assertTrue(length.isDone());
+
+		try {
+			length.join();
+			fail();
+		}
+		catch (AssertionError ae) {
+			assertEquals("failed", ae.getMessage());
+		}
+	}
+
+	@Test
+	public void thenCompose() throws Exception {
+		final Promise<Integer> inner = new Promise<Integer>();
+
+		Promise<String> promise = new Promise<String>();
+		Promise<Integer> composed = promise.thenCompose(
+			new Promise.Function<String, Promise<Integer>>() {
+
+				@Override
+				public Promise<Integer> apply(String value) {
+					return inner;
+				}
+
+			});
+
+		promise.complete("liferay");
+		assertFalse(composed.isDone());
+
+		inner.complete(7);
+		assertEquals(7, (int)composed.join());
+	}
+
+}
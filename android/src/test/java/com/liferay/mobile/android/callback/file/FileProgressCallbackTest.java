@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.callback.file;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class FileProgressCallbackTest {
+
+	@Test
+	public void throttleByInterval() {
+		final List<Integer> events = new ArrayList<Integer>();
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+				events.add(totalBytes);
+			}
+
+		};
+
+		callback.setThrottle(60000, 0);
+
+		for (int i = 0; i < 100; i++) {
+			callback.increment(10);
+		}
+
+		assertEquals(1, events.size());
+		assertEquals(10, (int)events.get(0));
+
+		callback.flush();
+
+		assertEquals(2, events.size());
+		assertEquals(1000, (int)events.get(1));
+
+		callback.flush();
+
+		assertEquals(2, events.size());
+	}
+
+	@Test
+	public void throttleByPercent() {
+		final List<Integer> events = new ArrayList<Integer>();
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+				events.add(totalBytes);
+			}
+
+		};
+
+		callback.setLength(1000);
+		callback.setThrottle(0, 10);
+
+		for (int i = 0; i < 1000; i++) {
+			callback.increment(1);
+		}
+
+		callback.flush();
+
+		assertEquals(10, events.size());
+		assertEquals(1000, (int)events.get(9));
+	}
+
+	@Test
+	public void unthrottled() {
+		final List<Integer> events = new ArrayList<Integer>();
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+				events.add(totalBytes);
+			}
+
+		};
+
+		for (int i = 0; i < 100; i++) {
+			callback.increment(1);
+		}
+
+		assertEquals(100, events.size());
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http;
+
+import java.io.StringReader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class JSONArrayReaderTest {
+
+	@Test
+	public void readArray() throws Exception {
+		String json =
+			"[ {\"name\": \"a]}\\\"\", \"ids\": [1, 2]}, [], \"b,\", 3, " +
+				"true, null ]";
+
+		JSONArrayReader reader = new JSONArrayReader(new StringReader(json));
+
+		JSONArray array = reader.readArray();
+
+		assertEquals(6, array.length());
+		assertEquals("a]}\"", array.getJSONObject(0).getString("name"));
+		assertEquals(2, array.getJSONObject(0).getJSONArray("ids").length());
+		assertEquals(0, array.getJSONArray(1).length());
+		assertEquals("b,", array.getString(2));
+		assertEquals(3, array.getInt(3));
+		assertTrue(array.getBoolean(4));
+		assertTrue(array.isNull(5));
+	}
+
+	@Test
+	public void readNestedElements() throws Exception {
+		StringBuilder sb = new StringBuilder("[[");
+
+		for (int i = 0; i < 5000; i++) {
+			if (i > 0) {
+				sb.append(",");
+			}
+
+			sb.append("{\"id\":");
+			sb.append(i);
+			sb.append("}");
+		}
+
+		sb.append("],\"next\"]");
+
+		JSONArrayReader reader = new JSONArrayReader(
+			new StringReader(sb.toString()));
+
+		reader.beginArray();
+		reader.beginArray();
+
+		int count = 0;
+
+		while (reader.hasNext()) {
+			JSONObject element = (JSONObject)reader.next();
+
+			assertEquals(count, element.getInt("id"));
+
+			count++;
+		}
+
+		reader.endArray();
+
+		assertEquals(5000, count);
+		assertEquals("next", reader.next());
+
+		reader.endArray();
+		reader.close();
+	}
+
+	@Test
+	public void skipRemainingElements() throws Exception {
+		JSONArrayReader reader = new JSONArrayReader(
+			new StringReader("[[1, [2, 3], {\"a\": \"]\"}], 4]"));
+
+		reader.beginArray();
+		reader.beginArray();
+
+		assertEquals(1, reader.next());
+
+		reader.endArray();
+
+		assertEquals(4, reader.next());
+		assertFalse(reader.hasNext());
+	}
+
+	@Test(expected = JSONException.class)
+	public void unterminatedArray() throws Exception {
+		JSONArrayReader reader = new JSONArrayReader(
+			new StringReader("[1, 2"));
+
+		reader.readArray();
+	}
+
+}
@@ -18,8 +18,13 @@ import com.liferay.mobile.android.BaseTest;
 import com.liferay.mobile.android.exception.AuthenticationException;
 import com.liferay.mobile.android.exception.ServerException;
 
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.ResponseBody;
+
 import java.io.IOException;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -55,6 +60,59 @@ public class ServerExceptionTest extends BaseTest {
 		}
 	}
 
+	@Test
+	public void bodyAsJSONArray() throws Exception {
+		JSONObject json = new JSONObject();
+
+		String exception = "java.lang.SecurityException";
+
+		json.put("exception", exception);
+
+		try {
+			Response response = createResponse(json.toString());
+			response.getBodyAsJSONArray();
+			fail("Should have thrown AuthenticationException");
+		}
+		catch (AuthenticationException ae) {
+			assertEquals(exception, ae.getMessage());
+		}
+
+		Response response = createResponse("[{\"groupId\": 1}]");
+
+		JSONArray result = response.getBodyAsJSONArray();
+
+		assertEquals(1, result.getJSONObject(0).getLong("groupId"));
+	}
+
+	@Test
+	public void bodyAsJSONValue() throws Exception {
+		Response response = createResponse("{\"fileEntryId\": 1}");
+
+		JSONObject result = (JSONObject)response.getBodyAsJSONValue();
+
+		assertEquals(1, result.getLong("fileEntryId"));
+
+		response = createResponse("");
+
+		assertEquals(0, ((JSONArray)response.getBodyAsJSONValue()).length());
+
+		JSONObject json = new JSONObject();
+
+		String exception = "com.liferay.portlet.documentlibrary." +
+			"DuplicateFileException";
+
+		json.put("exception", exception);
+
+		try {
+			response = createResponse(json.toString());
+			response.getBodyAsJSONValue();
+			fail("Should have detected portal exception.");
+		}
+		catch (ServerException se) {
+			assertEquals(exception, se.getMessage());
+		}
+	}
+
 	@Test
 	public void syncWeb() throws JSONException {
 		JSONObject json = new JSONObject();
@@ -161,4 +219,21 @@ public class ServerExceptionTest extends BaseTest {
 		}
 	}
 
+	protected Response createResponse(String body) {
+		com.squareup.okhttp.Request request =
+			new com.squareup.okhttp.Request.Builder()
+				.url(props.getUrl())
+				.build();
+
+		MediaType type = MediaType.parse("application/json; charset=utf-8");
+
+		return new Response(
+			new com.squareup.okhttp.Response.Builder()
+				.request(request)
+				.protocol(Protocol.HTTP_1_1)
+				.code(Status.OK)
+				.body(ResponseBody.create(type, body))
+				.build());
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.client;
+
+import com.liferay.mobile.android.auth.basic.DigestAuthentication;
+
+import com.squareup.okhttp.OkHttpClient;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class OkHttpClientRegistryTest {
+
+	@Test
+	public void getClient() {
+		OkHttpClientRegistry registry = new OkHttpClientRegistry();
+
+		OkHttpClient client = registry.getClient(1000, null);
+
+		assertEquals(1000, client.getConnectTimeout());
+		assertEquals(1000, client.getReadTimeout());
+		assertEquals(1000, client.getWriteTimeout());
+		assertFalse(client.getFollowRedirects());
+
+		assertSame(client, registry.getClient(1000, null));
+		assertNotSame(client, registry.getClient(2000, null));
+
+		DigestAuthentication digest = new DigestAuthentication("a", "b");
+
+		OkHttpClient digestClient = registry.getClient(1000, digest);
+
+		assertSame(digest, digestClient.getAuthenticator());
+		assertSame(digestClient, registry.getClient(1000, digest));
+
+		assertEquals(3, registry.getProfileCount());
+		assertEquals(2, registry.getHits());
+		assertEquals(3, registry.getMisses());
+	}
+
+	@Test
+	public void sharedPool() {
+		OkHttpClientRegistry registry = new OkHttpClientRegistry(2, 1000, 8, 2);
+
+		OkHttpClient client = registry.getClient(1000, null);
+
+		assertSame(
+			registry.getClient().getConnectionPool(),
+			client.getConnectionPool());
+
+		assertSame(registry.getDispatcher(), client.getDispatcher());
+		assertEquals(8, registry.getMaxRequests());
+		assertEquals(2, registry.getMaxRequestsPerHost());
+		assertEquals(0, registry.getIdleConnectionCount());
+
+		registry.setConnectionPool(4, 2000);
+
+		assertEquals(4, registry.getMaxIdleConnections());
+		assertEquals(0, registry.getProfileCount());
+		assertNotSame(client, registry.getClient(1000, null));
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.client;
+
+import com.liferay.mobile.android.callback.Callback;
+import com.liferay.mobile.android.http.Request;
+import com.liferay.mobile.android.http.Response;
+
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Bruno Farache
+ */
+public class StubClient implements HttpClient {
+
+	@Override
+	public void cancel(Object tag) {
+	}
+
+	@Override
+	public String encodeURL(String path) {
+		return path;
+	}
+
+	public int getCallbackCount() {
+		return callbacks.size();
+	}
+
+	public void respond(int index, String body) {
+		com.squareup.okhttp.Request.Builder requestBuilder =
+			new com.squareup.okhttp.Request.Builder();
+
+		requestBuilder.url("http://localhost:8080");
+
+		com.squareup.okhttp.Response.Builder builder =
+			new com.squareup.okhttp.Response.Builder();
+
+		builder.body(
+			ResponseBody.create(MediaType.parse("application/json"), body));
+		builder.code(200);
+		builder.protocol(Protocol.HTTP_1_1);
+		builder.request(requestBuilder.build());
+
+		Response response = new Response(builder.build());
+
+		callbacks.get(index).inBackground(response);
+	}
+
+	@Override
+	public Response send(Request request) throws Exception {
+		callbacks.add(request.getCallback());
+
+		return null;
+	}
+
+	@Override
+	public Response upload(Request request) throws Exception {
+		return send(request);
+	}
+
+	protected final List<Callback> callbacks =
+		Collections.synchronizedList(new ArrayList<Callback>());
+
+}
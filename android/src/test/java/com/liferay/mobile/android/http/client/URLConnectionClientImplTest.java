@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.client;
+
+import com.liferay.mobile.android.BaseTest;
+import com.liferay.mobile.android.GroupServiceTest;
+import com.liferay.mobile.android.callback.Promise;
+import com.liferay.mobile.android.http.HttpUtil;
+import com.liferay.mobile.android.v7.group.GroupService;
+
+import java.io.IOException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Bruno Farache
+ */
+public class URLConnectionClientImplTest extends BaseTest {
+
+	public URLConnectionClientImplTest() throws IOException {
+		super();
+	}
+
+	@Before
+	public void setUp() {
+		_client = HttpUtil.getClient();
+
+		HttpUtil.setClient(
+			new URLConnectionClientImpl(
+				URLConnectionClientImpl.newVirtualThreadExecutor()));
+	}
+
+	@After
+	public void tearDown() {
+		HttpUtil.setClient(_client);
+	}
+
+	@Test
+	public void getUserSites() throws Exception {
+		GroupService service = new GroupService(session);
+
+		GroupServiceTest.assertUserSites(service.getUserSitesGroups());
+	}
+
+	@Test
+	public void getUserSitesAsync() throws Exception {
+		GroupService service = new GroupService(session);
+
+		JSONObject command = new JSONObject();
+		command.put("/group/get-user-sites-groups", new JSONObject());
+
+		Promise<JSONArray> promise = service.invokeAsync(
+			command, JSONArray.class);
+
+		GroupServiceTest.assertUserSites(
+			promise.get(1000, TimeUnit.MILLISECONDS));
+	}
+
+	private HttpClient _client;
+
+}
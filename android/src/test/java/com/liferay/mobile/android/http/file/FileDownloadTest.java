@@ -25,7 +25,12 @@ import com.liferay.mobile.android.http.Status;
 import com.liferay.mobile.android.util.PortalVersion;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+
+import okio.BufferedSource;
+import okio.Okio;
 
 import org.json.JSONObject;
 
@@ -91,6 +96,110 @@ public class FileDownloadTest extends BaseTest {
 		assertEquals(5, baos.size());
 	}
 
+	@Test
+	public void downloadToFile() throws Exception {
+		BasicAuthentication basic =
+			(BasicAuthentication)session.getAuthentication();
+
+		DigestAuthentication digest = new DigestAuthentication(
+			basic.getUsername(), basic.getPassword());
+
+		session.setAuthentication(digest);
+
+		String url = session.getServer() + "/webdav/guest/document_library/" +
+			_file.getString(DLAppServiceTest.TITLE);
+
+		File file = File.createTempFile("download", ".txt");
+
+		final int[] progress = { 0 };
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+				progress[0] = totalBytes;
+			}
+
+		};
+
+		try {
+			Response response = HttpUtil.download(session, url, file, callback);
+			assertNotNull(response);
+			assertEquals(Status.OK, response.getStatusCode());
+			assertEquals(5, file.length());
+			assertEquals(5, progress[0]);
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void downloadCached() throws Exception {
+		BasicAuthentication basic =
+			(BasicAuthentication)session.getAuthentication();
+
+		DigestAuthentication digest = new DigestAuthentication(
+			basic.getUsername(), basic.getPassword());
+
+		session.setAuthentication(digest);
+
+		File directory = File.createTempFile("cache", "");
+
+		directory.delete();
+
+		FileCache cache = new FileCache(directory);
+
+		String title = _file.getString(DLAppServiceTest.TITLE);
+
+		InputStream is = DownloadUtil.downloadWebDAVFile(
+			session, PortalVersion.V_6_2, "guest", "", title, cache, null);
+
+		byte[] bytes = read(is);
+
+		assertEquals(5, bytes.length);
+		assertEquals(1, cache.getMisses());
+
+		is = DownloadUtil.downloadWebDAVFile(
+			session, PortalVersion.V_6_2, "guest", "", title, cache, null);
+
+		assertArrayEquals(bytes, read(is));
+		assertEquals(1, cache.getHits());
+
+		cache.clear();
+
+		assertEquals(0, cache.getSize());
+
+		directory.delete();
+	}
+
+	@Test
+	public void downloadRanges() throws Exception {
+		BasicAuthentication basic =
+			(BasicAuthentication)session.getAuthentication();
+
+		DigestAuthentication digest = new DigestAuthentication(
+			basic.getUsername(), basic.getPassword());
+
+		session.setAuthentication(digest);
+
+		String url = session.getServer() + "/webdav/guest/document_library/" +
+			_file.getString(DLAppServiceTest.TITLE);
+
+		File file = File.createTempFile("download", ".txt");
+
+		RangeDownloader downloader = new RangeDownloader(session, url, file);
+
+		try {
+			downloader.download(null);
+			assertEquals(5, file.length());
+			assertFalse(downloader.getManifestFile().exists());
+		}
+		finally {
+			file.delete();
+		}
+	}
+
 	@Test
 	public void getDownloadURL() throws Exception {
 		String expectedURL = "http://localhost:8080/webdav/guest" +
@@ -132,6 +241,17 @@ public class FileDownloadTest extends BaseTest {
 		test.deleteFileEntry(_file.getLong(DLAppServiceTest.FILE_ENTRY_ID));
 	}
 
+	protected byte[] read(InputStream is) throws IOException {
+		BufferedSource source = Okio.buffer(Okio.source(is));
+
+		try {
+			return source.readByteArray();
+		}
+		finally {
+			source.close();
+		}
+	}
+
 	private JSONObject _file;
 
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.callback.file.FileProgressCallback;
+import com.liferay.mobile.android.http.Headers;
+import com.liferay.mobile.android.http.Response;
+
+import com.squareup.okhttp.Protocol;
+
+import java.util.Arrays;
+
+import okio.Buffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class FileProgressUtilTest {
+
+	@Test
+	public void setLength() throws Exception {
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+			}
+
+		};
+
+		com.squareup.okhttp.Request.Builder requestBuilder =
+			new com.squareup.okhttp.Request.Builder();
+
+		requestBuilder.url("http://localhost:8080");
+
+		com.squareup.okhttp.Response.Builder builder =
+			new com.squareup.okhttp.Response.Builder();
+
+		builder.code(200);
+		builder.header(Headers.CONTENT_LENGTH, "1024");
+		builder.protocol(Protocol.HTTP_1_1);
+		builder.request(requestBuilder.build());
+
+		FileProgressUtil.setLength(callback, new Response(builder.build()));
+
+		assertEquals(1024, callback.getLength());
+
+		FileProgressUtil.setLength(callback, 2048);
+
+		assertEquals(1024, callback.getLength());
+	}
+
+	@Test
+	public void transferSource() throws Exception {
+		byte[] bytes = new byte[200 * 1024 + 7];
+
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)i;
+		}
+
+		Buffer source = new Buffer();
+		source.write(bytes);
+
+		Buffer sink = new Buffer();
+
+		final int[] progress = { 0, 0 };
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onBytes(byte[] bytes) {
+				fail();
+			}
+
+			@Override
+			public void onProgress(int totalBytes) {
+				progress[0] = totalBytes;
+				progress[1]++;
+			}
+
+		};
+
+		FileProgressUtil.transfer(source, callback, null, sink);
+
+		assertTrue(Arrays.equals(bytes, sink.readByteArray()));
+		assertEquals(bytes.length, progress[0]);
+		assertEquals(4, progress[1]);
+	}
+
+}
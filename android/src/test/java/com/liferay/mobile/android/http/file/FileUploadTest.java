@@ -21,6 +21,8 @@ import com.liferay.mobile.android.v7.dlapp.DLAppService;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -97,6 +99,52 @@ public class FileUploadTest extends BaseTest {
 		assertEquals(5, baos.size());
 	}
 
+	@Test
+	public void addFileEntryFromFile() throws Exception {
+		DLAppService service = new DLAppService(session);
+
+		long repositoryId = props.getGroupId();
+		long folderId = DLAppServiceTest.PARENT_FOLDER_ID;
+		String fileName = DLAppServiceTest.SOURCE_FILE_NAME;
+		String mimeType = DLAppServiceTest.MIME_TYPE;
+
+		File file = File.createTempFile("upload", ".txt");
+
+		FileOutputStream fos = new FileOutputStream(file);
+
+		try {
+			fos.write("Hello".getBytes(StandardCharsets.UTF_8));
+		}
+		finally {
+			fos.close();
+		}
+
+		FileProgressCallback callback = new FileProgressCallback() {
+
+			@Override
+			public void onProgress(int totalBytes) {
+			}
+
+		};
+
+		UploadData data = new UploadData(file, mimeType, fileName, callback);
+
+		assertEquals(5, data.getLength());
+		assertEquals(5, new FileBody(data, null).contentLength());
+
+		try {
+			_file = service.addFileEntry(
+				repositoryId, folderId, fileName, mimeType, fileName, "", "",
+				data, null);
+		}
+		finally {
+			file.delete();
+		}
+
+		assertEquals(fileName, _file.get(DLAppServiceTest.TITLE));
+		assertEquals(5, callback.getTotal());
+	}
+
 	@Test
 	public void cancel() throws Exception {
 		DLAppService service = new DLAppService(session);
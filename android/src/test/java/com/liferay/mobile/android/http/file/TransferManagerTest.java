@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.http.file;
+
+import com.liferay.mobile.android.BaseTest;
+import com.liferay.mobile.android.DLAppServiceTest;
+import com.liferay.mobile.android.auth.basic.BasicAuthentication;
+import com.liferay.mobile.android.auth.basic.DigestAuthentication;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.json.JSONObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class TransferManagerTest extends BaseTest {
+
+	public TransferManagerTest() throws IOException {
+		super();
+	}
+
+	@Test
+	public void download() throws Exception {
+		BasicAuthentication basic =
+			(BasicAuthentication)session.getAuthentication();
+
+		DigestAuthentication digest = new DigestAuthentication(
+			basic.getUsername(), basic.getPassword());
+
+		session.setAuthentication(digest);
+
+		String url = session.getServer() + "/webdav/guest/document_library/" +
+			_file.getString(DLAppServiceTest.TITLE);
+
+		File directory = createTempDirectory();
+		File file = new File(directory, "download.txt");
+
+		TransferManager manager = new TransferManager(session, directory);
+
+		Transfer transfer = manager.download(url, file);
+
+		for (int i = 0; (i < 50) && !transfer.isFinished(); i++) {
+			Thread.sleep(100);
+		}
+
+		assertEquals(Transfer.State.COMPLETED, transfer.getState());
+		assertEquals(5, file.length());
+		assertEquals(5, manager.getTransferredBytes());
+		assertEquals(1.0, manager.getProgress(), 0);
+		assertFalse(manager.resume(transfer.getId()));
+
+		assertEquals(1, directory.list().length);
+
+		file.delete();
+		directory.delete();
+	}
+
+	@Test
+	public void pause() throws Exception {
+		File directory = createTempDirectory();
+
+		TransferManager manager = new TransferManager(
+			session, directory, 0, 0);
+
+		Transfer transfer = manager.download(
+			session.getServer(), new File(directory, "download.txt"));
+
+		assertEquals(Transfer.State.QUEUED, transfer.getState());
+		assertTrue(manager.pause(transfer.getId()));
+		assertEquals(Transfer.State.PAUSED, transfer.getState());
+
+		File truncated = new File(directory, "truncated.transfer");
+
+		OutputStream os = new FileOutputStream(truncated);
+
+		try {
+			os.write("id=truncated\ntype=UPL".getBytes());
+		}
+		finally {
+			os.close();
+		}
+
+		manager = new TransferManager(session, directory, 0, 0);
+
+		assertEquals(1, manager.getTransfers().size());
+		assertFalse(truncated.exists());
+
+		transfer = manager.getTransfer(transfer.getId());
+
+		assertEquals(Transfer.State.PAUSED, transfer.getState());
+		assertTrue(manager.cancel(transfer.getId()));
+		assertEquals(0, directory.list().length);
+
+		directory.delete();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		DLAppServiceTest test = new DLAppServiceTest();
+		_file = test.addFileEntry();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		DLAppServiceTest test = new DLAppServiceTest();
+		test.deleteFileEntry(_file.getLong(DLAppServiceTest.FILE_ENTRY_ID));
+	}
+
+	protected File createTempDirectory() throws IOException {
+		File directory = File.createTempFile("transfers", "");
+
+		directory.delete();
+		directory.mkdirs();
+
+		return directory;
+	}
+
+	private JSONObject _file;
+
+}
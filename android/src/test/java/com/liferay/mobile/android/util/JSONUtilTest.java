@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.mobile.android.util;
+
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Bruno Farache
+ */
+public class JSONUtilTest {
+
+	@Test
+	public void canonicalize() throws Exception {
+		JSONObject first = new JSONObject(
+			"{\"/user/get-user-by-id\": " +
+				"{\"userId\": 1, \"a\": [\"x\", null]}}");
+
+		JSONObject second = new JSONObject(
+			"{\"/user/get-user-by-id\": " +
+				"{\"a\": [\"x\", null], \"userId\": 1}}");
+
+		String key = JSONUtil.canonicalize(first);
+
+		assertEquals(key, JSONUtil.canonicalize(second));
+		assertEquals(
+			"{\"/user/get-user-by-id\":{\"a\":[\"x\",null],\"userId\":1}}",
+			key);
+	}
+
+}